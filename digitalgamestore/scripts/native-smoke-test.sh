@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Smoke test of the native executable (gradle nativeCompile): starts it, exercises the catalogue, user,
+# login and transaction endpoints once each through JSON and Smile, then prints startup time and RSS.
+# Fails on the first unexpected status code.
+#
+# The database is the Compose MariaDB (docker compose up -d mariadb) unless application arguments say
+# otherwise; the binary migrates the schema on startup like the jar does. A boot jar can be given instead
+# of the executable to compare the two.
+#
+# Usage: scripts/native-smoke-test.sh [executable or jar] [application arguments...]
+#   scripts/native-smoke-test.sh build/native/nativeCompile/digitalgamestore \
+#       --spring.datasource.url=jdbc:mariadb://localhost:3306/hib_db
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+EXECUTABLE="${1:-$HERE/build/native/nativeCompile/digitalgamestore}"
+shift || true
+PORT="${SMOKE_PORT:-8080}"
+API="http://localhost:$PORT"
+LOG="$HERE/build/native-smoke-test.log"
+mkdir -p "$HERE/build"
+
+if [ ! -x "$EXECUTABLE" ] && [[ "$EXECUTABLE" != *.jar ]]; then
+    echo "$EXECUTABLE not found; run gradle nativeCompile first" >&2
+    exit 1
+fi
+COMMAND=("$EXECUTABLE")
+if [[ "$EXECUTABLE" == *.jar ]]; then
+    COMMAND=(java -jar "$EXECUTABLE")
+fi
+
+START=$(date +%s%N)
+"${COMMAND[@]}" --server.port="$PORT" --spring.jpa.show-sql=false "$@" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+for _ in $(seq 1 600); do
+    curl -fs "$API/actuator/health" > /dev/null && break
+    kill -0 $PID 2>/dev/null || { echo "Application exited; see $LOG" >&2; exit 1; }
+    sleep 0.1
+done
+READY=$(( ($(date +%s%N) - START) / 1000000 ))
+
+# expect <status> <method> <path> [json body]: prints the response body
+expect() {
+    local status="$1" method="$2" path="$3" body="${4:-}"
+    local args=(-s -o "$HERE/build/native-smoke-response" -w "%{http_code}" -X "$method" "$API$path")
+    if [ -n "$body" ]; then
+        args+=(-H "Content-Type: application/json" -d "$body")
+    fi
+    local actual
+    actual=$(curl "${args[@]}")
+    if [ "$actual" != "$status" ]; then
+        echo "FAILED: $method $path returned $actual, expected $status" >&2
+        cat "$HERE/build/native-smoke-response" >&2
+        exit 1
+    fi
+    echo "ok   $method $path" >&2
+    cat "$HERE/build/native-smoke-response"
+}
+
+GAME_ID=$(expect 200 GET "/api/games/catalog?page=0&size=5" | grep -o '"gameId":[0-9]*' | head -1 | cut -d: -f2)
+if [ -z "$GAME_ID" ]; then
+    echo "FAILED: the catalogue is empty; load InsertIntoGame.sql first" >&2
+    exit 1
+fi
+expect 200 GET "/api/games/$GAME_ID" > /dev/null
+expect 200 GET "/api/games/genres" > /dev/null
+expect 200 GET "/api/games/search?genre=RPG" > /dev/null
+SMILE=$(curl -s -o /dev/null -w "%{http_code} %{content_type}" -H "Accept: application/x-jackson-smile" "$API/api/games/$GAME_ID")
+[ "$SMILE" = "200 application/x-jackson-smile" ] || { echo "FAILED: Smile returned $SMILE" >&2; exit 1; }
+echo "ok   GET /api/games/$GAME_ID as Smile" >&2
+
+NAME="smoke_$(date +%s)"
+USER_ID=$(expect 201 POST /api/users \
+    "{\"username\":\"$NAME\",\"email\":\"$NAME@smoke.local\",\"password\":\"smoke\",\"accountBalance\":1000}" \
+    | grep -o '"userId":[0-9]*' | cut -d: -f2)
+expect 200 POST /api/users/login "{\"username\":\"$NAME\",\"password\":\"smoke\"}" > /dev/null
+expect 200 POST /api/transactions "{\"userId\":$USER_ID,\"gameId\":$GAME_ID,\"transactionType\":\"Lease\"}" > /dev/null
+expect 200 GET "/api/users/$USER_ID/profile" > /dev/null
+expect 200 GET /actuator/prometheus > /dev/null
+
+RSS=$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$PID/status" 2>/dev/null || echo "?")
+echo "Smoke test passed: first response after ${READY} ms, RSS ${RSS} MB"
+grep -o "Started .*" "$LOG" || true
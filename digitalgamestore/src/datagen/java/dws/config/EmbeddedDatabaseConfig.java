@@ -0,0 +1,68 @@
+package dws.config;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import ch.vorburger.exec.ManagedProcessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.File;
+
+/**
+ * Runs the API against an embedded MariaDB server (MariaDB4j) in the "bench" profile, so performance
+ * work needs neither Docker nor a local database. It is the same server as in production, so the
+ * Flyway migrations, indexes and query plans are the real ones.
+ * The data directory (datagen.* output included) persists in bench.db.data-dir between runs.
+ * Lives in the datagen source set with MariaDB4j, so the profile works from Gradle (bootRun,
+ * generateData, jmh) and the IDE; the packaged jar has neither.
+ */
+@Configuration
+@Profile("bench")
+public class EmbeddedDatabaseConfig {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedDatabaseConfig.class);
+
+    @Bean(destroyMethod = "stop")
+    public DB embeddedDatabase(@Value("${bench.db.port:0}") int port,
+                               @Value("${bench.db.data-dir:build/bench-db}") String dataDir) throws ManagedProcessException {
+        DBConfigurationBuilder configuration = DBConfigurationBuilder.newBuilder()
+            .setPort(port)
+            .setDataDir(new File(dataDir).getAbsolutePath());
+        // mysqld refuses to run as root unless told to
+        if ("root".equals(System.getProperty("user.name"))) {
+            configuration.addArg("--user=root");
+        }
+        DB db = DB.newEmbeddedDB(configuration.build());
+        db.start();
+        logger.info("Embedded MariaDB started on port {} with data in {}", db.getConfiguration().getPort(), dataDir);
+        return db;
+    }
+
+    @Bean
+    public JdbcConnectionDetails embeddedDatabaseConnectionDetails(DB embeddedDatabase,
+                                                                   @Value("${bench.db.name:DigitalGameStore}") String name) {
+        // The driver creates the database; DB.createDB would shell out to the mariadb client, which needs extra system libraries
+        String url = "jdbc:mariadb://localhost:" + embeddedDatabase.getConfiguration().getPort() + "/" + name
+            + "?createDatabaseIfNotExist=true";
+        return new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return "root";
+            }
+
+            @Override
+            public String getPassword() {
+                return "";
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return url;
+            }
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package dws.datagen;
+
+import dws.shared.sampling.ZipfSampler;
+import dws.transactions.TransactionTerms;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic games, users and transactions with production-like skew and bulk-loads them.
+ * Games get one to three genres from a weighted genre mix and a common price point, with a lease
+ * price of about a fifth of it. Users are named gen_user_&lt;id&gt; and share one password so load tests
+ * can log in as them. Each transaction picks its game by Zipfian popularity over a shuffled ranking
+ * (so popular games are not simply the lowest ids) and its user by Zipfian activity; leases make up
+ * the configured share, and dates cover the last two years in id order.
+ *
+ * Rows get explicit ids following the current maximum and are written as JDBC batches, committed
+ * once per batch, with MariaDB's foreign key and unique checks off for the loading session.
+ */
+public class DataGenerator {
+    private static final String[] GENRES = {
+        "Action", "Adventure", "RPG", "Strategy", "Simulation", "Shooter", "Indie", "Puzzle",
+        "Sports", "Racing", "Platformer", "Roguelike", "Horror", "Survival"
+    };
+    private static final double[] GENRE_WEIGHTS = {20, 14, 12, 9, 8, 10, 15, 6, 6, 5, 5, 4, 4, 5};
+    private static final double[] PRICES = {4.99, 9.99, 14.99, 19.99, 24.99, 29.99, 39.99, 49.99, 59.99, 69.99};
+    private static final double[] PRICE_WEIGHTS = {8, 16, 14, 16, 12, 10, 8, 6, 7, 3};
+    private static final String[] TITLE_FIRST = {
+        "Crimson", "Hollow", "Silent", "Iron", "Last", "Broken", "Shadow", "Eternal", "Lost", "Star",
+        "Frozen", "Wild", "Neon", "Ancient", "Burning", "Distant", "Hidden", "Golden", "Savage", "Endless"
+    };
+    private static final String[] TITLE_SECOND = {
+        "Frontier", "Kingdom", "Protocol", "Legacy", "Odyssey", "Harvest", "Dominion", "Horizon", "Tides",
+        "Requiem", "Citadel", "Vanguard", "Depths", "Chronicles", "Outpost", "Drift", "Empire", "Signal"
+    };
+    private static final String[] SEQUELS = {"", "", "", "", " II", " III", ": Reborn", " Remastered"};
+    private static final int GAMES_PER_DEVELOPER = 8;
+    private static final int HISTORY_DAYS = 730;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final int batchSize;
+    private final LocalDate today = LocalDate.now();
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, long seed, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Deletes every game, user and transaction.
+     */
+    public void reset() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET foreign_key_checks = 0");
+                try {
+                    statement.execute("TRUNCATE TABLE `transaction`");
+                    statement.execute("TRUNCATE TABLE `user`");
+                    statement.execute("TRUNCATE TABLE `game`");
+                } finally {
+                    statement.execute("SET foreign_key_checks = 1");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Inserts synthetic games.
+     *
+     * @param count Number of games to insert
+     */
+    public void generateGames(int count) {
+        int firstId = nextId("game", "game_id");
+        ZipfSampler developers = new ZipfSampler(Math.max(1, count / GAMES_PER_DEVELOPER), 0.8);
+        long earliest = LocalDate.of(2000, 1, 1).toEpochDay();
+        long span = today.toEpochDay() - earliest;
+        load("INSERT INTO `game` (game_id, title, genre, developer, release_date, price, lease_price, description) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", firstId, count, (statement, id) -> {
+            String title = pick(TITLE_FIRST) + " " + pick(TITLE_SECOND) + pick(SEQUELS);
+            String genre = genres();
+            double price = PRICES[weighted(PRICE_WEIGHTS)];
+            statement.setInt(1, id);
+            statement.setString(2, title);
+            statement.setString(3, genre);
+            statement.setString(4, "Studio " + (developers.sample(random) + 1));
+            statement.setObject(5, LocalDate.ofEpochDay(earliest + (long) (random.nextDouble() * span)));
+            statement.setDouble(6, price);
+            statement.setDouble(7, Math.floor(price / 5) + 0.99);
+            statement.setString(8, title + " is a " + genre.replace(",", ", ") + " game.");
+        });
+    }
+
+    /**
+     * Inserts synthetic users named gen_user_&lt;id&gt;.
+     *
+     * @param count Number of users to insert
+     * @param password Password given to every generated user
+     */
+    public void generateUsers(int count, String password) {
+        int firstId = nextId("user", "user_id");
+        load("INSERT INTO `user` (user_id, username, email, password, account_balance) VALUES (?, ?, ?, ?, ?)",
+                firstId, count, (statement, id) -> {
+            statement.setInt(1, id);
+            statement.setString(2, "gen_user_" + id);
+            statement.setString(3, "gen_user_" + id + "@example.com");
+            statement.setString(4, password);
+            statement.setDouble(5, Math.round(random.nextDouble() * 20_000) / 100.0);
+        });
+    }
+
+    /**
+     * Inserts synthetic transactions between the games and users already in the database.
+     *
+     * @param count Number of transactions to insert
+     * @param popularityExponent Zipf exponent of game popularity
+     * @param activityExponent Zipf exponent of user activity
+     * @param leaseRatio Share of transactions that are leases rather than purchases
+     */
+    public void generateTransactions(int count, double popularityExponent, double activityExponent, double leaseRatio) {
+        List<GameRow> games = jdbcTemplate.query("SELECT game_id, price, lease_price, release_date FROM `game`",
+            (rs, row) -> new GameRow(rs.getInt(1), rs.getDouble(2), rs.getDouble(3), rs.getDate(4).toLocalDate()));
+        int[] userIds = jdbcTemplate.queryForList("SELECT user_id FROM `user`", Integer.class).stream()
+            .mapToInt(Integer::intValue).toArray();
+        if (games.isEmpty() || userIds.length == 0) {
+            throw new IllegalStateException("Transactions need at least one game and one user");
+        }
+        // Shuffled so that popularity rank is unrelated to game id
+        Collections.shuffle(games, random);
+        shuffle(userIds);
+        ZipfSampler popularity = new ZipfSampler(games.size(), popularityExponent);
+        ZipfSampler activity = new ZipfSampler(userIds.length, activityExponent);
+
+        long[] days = new long[count];
+        long start = today.toEpochDay() - HISTORY_DAYS;
+        for (int i = 0; i < count; i++) {
+            days[i] = start + random.nextInt(HISTORY_DAYS + 1);
+        }
+        Arrays.sort(days);
+
+        int firstId = nextId("transaction", "transaction_id");
+        load("INSERT INTO `transaction` (transaction_id, user_id, game_id, transaction_type, transaction_date, "
+                + "expiry_date, amount) VALUES (?, ?, ?, ?, ?, ?, ?)", firstId, count, (statement, id) -> {
+            GameRow game = games.get(popularity.sample(random));
+            LocalDate date = LocalDate.ofEpochDay(Math.max(days[id - firstId], game.released().toEpochDay()));
+            boolean lease = random.nextDouble() < leaseRatio;
+            statement.setInt(1, id);
+            statement.setInt(2, userIds[activity.sample(random)]);
+            statement.setInt(3, game.id());
+            statement.setString(4, lease ? TransactionTerms.LEASE : TransactionTerms.PURCHASE);
+            statement.setString(5, date.toString());
+            statement.setString(6, lease ? date.plusDays(TransactionTerms.LEASE_DAYS).toString() : null);
+            statement.setDouble(7, lease ? game.leasePrice() : game.price());
+        });
+    }
+
+    private void load(String sql, int firstId, int count, RowWriter writer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            setChecks(connection, 0);
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    writer.write(statement, firstId + i);
+                    statement.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == count - 1) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                setChecks(connection, 1);
+            }
+            return null;
+        });
+    }
+
+    private static void setChecks(Connection connection, int value) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET foreign_key_checks = " + value + ", unique_checks = " + value);
+        }
+    }
+
+    private int nextId(String table, String column) {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM `" + table + "`", Integer.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private String genres() {
+        int count = 1 + random.nextInt(3);
+        List<String> chosen = new ArrayList<>(count);
+        while (chosen.size() < count) {
+            String genre = GENRES[weighted(GENRE_WEIGHTS)];
+            if (!chosen.contains(genre)) {
+                chosen.add(genre);
+            }
+        }
+        return String.join(",", chosen);
+    }
+
+    private int weighted(double[] weights) {
+        double target = random.nextDouble() * Arrays.stream(weights).sum();
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    private record GameRow(int id, double price, double leasePrice, LocalDate released) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, int id) throws SQLException;
+    }
+}
@@ -0,0 +1,94 @@
+package dws.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the database with synthetic data once the schema is migrated, then shuts the application down.
+ * Enabled with datagen.enabled=true, which the generateData Gradle task sets; volumes and skew are
+ * configured through datagen.* (see datagen.properties). Rows are appended to what is already
+ * there unless datagen.reset=true, which first deletes all games, users and transactions.
+ * Lives in the datagen source set, which is never packaged in the boot jar.
+ */
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@PropertySource("classpath:datagen.properties")
+public class DataGeneratorRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorRunner.class);
+
+    private final DataGenerator generator;
+    private final ConfigurableApplicationContext context;
+    private final boolean reset;
+    private final int games;
+    private final int users;
+    private final int transactions;
+    private final String userPassword;
+    private final double popularityExponent;
+    private final double activityExponent;
+    private final double leaseRatio;
+
+    public DataGeneratorRunner(
+            JdbcTemplate jdbcTemplate,
+            ConfigurableApplicationContext context,
+            @Value("${datagen.seed:42}") long seed,
+            @Value("${datagen.batch-size:1000}") int batchSize,
+            @Value("${datagen.reset:false}") boolean reset,
+            @Value("${datagen.games:5000}") int games,
+            @Value("${datagen.users:50000}") int users,
+            @Value("${datagen.transactions:500000}") int transactions,
+            @Value("${datagen.user-password:password}") String userPassword,
+            @Value("${datagen.game-popularity-exponent:1.0}") double popularityExponent,
+            @Value("${datagen.user-activity-exponent:0.7}") double activityExponent,
+            @Value("${datagen.lease-ratio:0.3}") double leaseRatio) {
+        this.generator = new DataGenerator(jdbcTemplate, seed, batchSize);
+        this.context = context;
+        this.reset = reset;
+        this.games = games;
+        this.users = users;
+        this.transactions = transactions;
+        this.userPassword = userPassword;
+        this.popularityExponent = popularityExponent;
+        this.activityExponent = activityExponent;
+        this.leaseRatio = leaseRatio;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            if (reset) {
+                logger.warn("Deleting all games, users and transactions before generating data");
+                generator.reset();
+            }
+            timed("games", games, () -> generator.generateGames(games));
+            timed("users", users, () -> generator.generateUsers(users, userPassword));
+            timed("transactions", transactions, () -> generator.generateTransactions(
+                transactions, popularityExponent, activityExponent, leaseRatio));
+        } catch (RuntimeException e) {
+            logger.error("Data generation failed", e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+    private void timed(String table, int rows, Runnable step) {
+        if (rows <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        step.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Generated {} {} in {} s ({} rows/s)", rows, table,
+            String.format("%.1f", seconds), Math.round(rows / seconds));
+    }
+}
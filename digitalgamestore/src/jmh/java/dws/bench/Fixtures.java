@@ -0,0 +1,42 @@
+package dws.bench;
+
+import dws.entities.Game;
+import dws.entities.Transaction;
+import dws.transactions.TransactionTerms;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Entities with realistic field sizes for the benchmarks that run without a database.
+ */
+final class Fixtures {
+    private static final String[] GENRES = {"Action", "Adventure", "RPG", "Strategy", "Indie", "Roguelike"};
+
+    private Fixtures() {
+    }
+
+    static Game game(int id, Random random) {
+        Game game = new Game();
+        game.setGameId(id);
+        game.setTitle("Benchmark Game " + id);
+        game.setGenre(GENRES[random.nextInt(GENRES.length)] + "," + GENRES[random.nextInt(GENRES.length)]);
+        game.setDeveloper("Studio " + random.nextInt(500));
+        game.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9000)));
+        game.setPrice(4.99 + 5 * random.nextInt(13));
+        game.setLeasePrice(0.99 + random.nextInt(14));
+        game.setDescription("A game about benchmarks. ".repeat(8 + random.nextInt(16)));
+        return game;
+    }
+
+    static Transaction transaction(int id, int userId, int gameId, boolean lease, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setUserId(userId);
+        transaction.setGameId(gameId);
+        transaction.setTransactionType(lease ? TransactionTerms.LEASE : TransactionTerms.PURCHASE);
+        TransactionTerms.applyDates(transaction, date);
+        transaction.setAmount(lease ? 4.99 : 24.99);
+        return transaction;
+    }
+}
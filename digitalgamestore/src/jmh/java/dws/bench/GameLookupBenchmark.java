@@ -0,0 +1,104 @@
+package dws.bench;
+
+import dws.DigitalGameStoreWebServicesApplication;
+import dws.controllers.GameController;
+import dws.controllers.GamePage;
+import dws.datagen.DataGenerator;
+import dws.entities.Game;
+import dws.repositories.GameRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The catalogue lookups behind GET /api/games/search, /catalog, /genres and /{id}, through the real
+ * controller, Spring Data repositories and Hibernate entity mapping, against the embedded MariaDB of
+ * the bench profile (its own data directory, filled with generated games on first use).
+ * searchGames maps whole Game entities while searchCatalog maps GameSummary projections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameLookupBenchmark {
+    private static final int GAMES = 5000;
+
+    private ConfigurableApplicationContext context;
+    private GameController gameController;
+    private GameRepository gameRepository;
+    private List<Integer> batchIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(DigitalGameStoreWebServicesApplication.class)
+            .profiles("bench")
+            .web(WebApplicationType.NONE)
+            .properties("logging.level.root=WARN")
+            // An argument, as default properties lose to application-bench.properties
+            .run("--bench.db.data-dir=build/jmh-db");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Integer games = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `game`", Integer.class);
+        if (games == null || games != GAMES) {
+            DataGenerator generator = new DataGenerator(jdbcTemplate, 42, 1000);
+            generator.reset();
+            generator.generateGames(GAMES);
+        }
+        gameController = context.getBean(GameController.class);
+        gameRepository = context.getBean(GameRepository.class);
+        batchIds = IntStream.rangeClosed(1, 50).map(i -> i * (GAMES / 50)).boxed().toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Game> searchGames(GenreState state) {
+        return gameController.searchGames(state.genre);
+    }
+
+    @Benchmark
+    public GamePage searchCatalog(GenreState state) {
+        return gameController.searchCatalog("", state.genre, "title", 0, 50);
+    }
+
+    @Benchmark
+    public Set<String> genres() {
+        return gameController.getGenres();
+    }
+
+    @Benchmark
+    public Game findById() {
+        return gameRepository.findById(ThreadLocalRandom.current().nextInt(1, GAMES + 1)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Game> findAllById() {
+        return gameRepository.findAllById(batchIds);
+    }
+
+    /**
+     * Genre searched for: a common one and a rare one.
+     */
+    @State(Scope.Benchmark)
+    public static class GenreState {
+        @Param({"RPG", "Roguelike"})
+        public String genre;
+    }
+}
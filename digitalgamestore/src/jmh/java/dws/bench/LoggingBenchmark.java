@@ -0,0 +1,124 @@
+package dws.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import dws.logging.DiscardCountingAsyncAppender;
+import dws.logging.RateSamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What logging costs a request thread: the three INFO events of a purchase (transaction requested,
+ * transaction created, request completed), from four threads at once, written to a file under build/.
+ * sync writes on the request thread like Boot's default console appender; async hands events to
+ * the bounded, never-blocking queue of logback-spring.xml; async-sampled also applies the per-logger
+ * rate sampling of the controllers (50 events per second per logger).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [%15.15t] [%X{requestId:-}] "
+        + "%-40.40logger{39} : %m%replace( %kvp{NONE}){'^ $', ''}%n";
+
+    @Param({"sync", "async", "async-sampled"})
+    public String pipeline;
+
+    private LoggerContext context;
+    private Logger controllerLogger;
+    private Logger requestLogger;
+    private DiscardCountingAsyncAppender async;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile("build/jmh-logs/" + pipeline + ".log");
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (pipeline.startsWith("async")) {
+            async = new DiscardCountingAsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        if (pipeline.endsWith("sampled")) {
+            RateSamplingTurboFilter sampling = new RateSamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.setLoggers("dws.controllers,dws.logging");
+            sampling.setEventsPerSecond(50);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        controllerLogger = context.getLogger("dws.controllers.TransactionController");
+        requestLogger = context.getLogger("dws.logging.RequestLogFilter");
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        if (async != null) {
+            System.out.printf("%n%s: %d events discarded and %d dropped by the async queue, %d by sampling%n",
+                pipeline, async.getDiscarded(), async.getDropped(), RateSamplingTurboFilter.dropped());
+        }
+        context.stop();
+    }
+
+    @Benchmark
+    public void purchaseRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int userId = random.nextInt(1, 20_000);
+        int gameId = random.nextInt(1, 2_000);
+        MDC.put("requestId", Long.toHexString(random.nextLong()));
+        controllerLogger.atInfo()
+            .addKeyValue("userId", userId)
+            .addKeyValue("gameId", gameId)
+            .log("Creating transaction");
+        controllerLogger.atInfo()
+            .addKeyValue("transactionId", random.nextInt())
+            .addKeyValue("amount", 59.99)
+            .log("Transaction created");
+        requestLogger.atInfo()
+            .addKeyValue("method", "POST")
+            .addKeyValue("uri", "/api/transactions")
+            .addKeyValue("status", 200)
+            .addKeyValue("latencyMs", 12)
+            .log("Request completed");
+        MDC.remove("requestId");
+    }
+}
@@ -0,0 +1,78 @@
+package dws.bench;
+
+import dws.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the login rate limiter adds to every login attempt, from four threads at once; the budget is well
+ * under 1 µs. allowed never runs out of tokens (the CAS path), rejected has spent every bucket (the
+ * rejection counter path). Attempts are spread over 10,000 usernames and 1,000 client addresses;
+ * spray uses a new username on every attempt, so each allowed one also creates a bucket; idle buckets are
+ * evicted after every iteration, as the scheduled eviction would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoginRateLimiterBenchmark {
+    private static final int USERNAMES = 10_000;
+    private static final int ADDRESSES = 1_000;
+
+    @Param({"allowed", "rejected"})
+    public String scenario;
+
+    private LoginRateLimiter limiter;
+    private String[] usernames;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        // A capacity above the refill period in nanoseconds makes the emission interval zero
+        limiter = "allowed".equals(scenario)
+            ? new LoginRateLimiter(new SimpleMeterRegistry(), Integer.MAX_VALUE, Duration.ofSeconds(1),
+                Integer.MAX_VALUE, Duration.ofSeconds(1))
+            : new LoginRateLimiter(new SimpleMeterRegistry(), 1, Duration.ofHours(1), 1, Duration.ofHours(1));
+        usernames = new String[USERNAMES];
+        for (int i = 0; i < USERNAMES; i++) {
+            usernames[i] = "user" + i;
+        }
+        addresses = new String[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+        for (int i = 0; i < USERNAMES; i++) {
+            limiter.tryAcquire(usernames[i], addresses[i % ADDRESSES]);
+        }
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+    public void evictIdleBuckets() {
+        limiter.evictIdleBuckets();
+    }
+
+    @Benchmark
+    public boolean attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return limiter.tryAcquire(usernames[random.nextInt(USERNAMES)], addresses[random.nextInt(ADDRESSES)]);
+    }
+
+    @Benchmark
+    public boolean spray() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return limiter.tryAcquire(Long.toHexString(random.nextLong()), addresses[random.nextInt(ADDRESSES)]);
+    }
+}
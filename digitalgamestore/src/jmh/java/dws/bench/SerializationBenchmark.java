@@ -0,0 +1,94 @@
+package dws.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dws.entities.Game;
+import dws.entities.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of the lists the API returns most: games (GET /api/games, /search) and
+ * transactions (history and profile), in JSON and in Smile, plus decoding as the web client does.
+ * The mappers are configured like Spring Boot's, so dates serialise as ISO strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    private static final TypeReference<List<Game>> GAME_LIST = new TypeReference<>() { };
+
+    @Param({"20", "500"})
+    public int size;
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private List<Game> games;
+    private List<Transaction> transactions;
+    private byte[] gamesJson;
+    private byte[] gamesSmile;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        smile = Jackson2ObjectMapperBuilder.smile()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        Random random = new Random(42);
+        games = new ArrayList<>(size);
+        transactions = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            games.add(Fixtures.game(i, random));
+            transactions.add(Fixtures.transaction(i, i % 7 + 1, i, random.nextBoolean(), LocalDate.of(2025, 3, 14)));
+        }
+        gamesJson = json.writeValueAsBytes(games);
+        gamesSmile = smile.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public byte[] writeGamesJson() throws IOException {
+        return json.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public byte[] writeGamesSmile() throws IOException {
+        return smile.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public byte[] writeTransactionsJson() throws IOException {
+        return json.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] writeTransactionsSmile() throws IOException {
+        return smile.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public List<Game> readGamesJson() throws IOException {
+        return json.readValue(gamesJson, GAME_LIST);
+    }
+
+    @Benchmark
+    public List<Game> readGamesSmile() throws IOException {
+        return smile.readValue(gamesSmile, GAME_LIST);
+    }
+}
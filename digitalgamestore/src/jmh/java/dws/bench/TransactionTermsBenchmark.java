@@ -0,0 +1,66 @@
+package dws.bench;
+
+import dws.entities.Game;
+import dws.entities.Transaction;
+import dws.transactions.TransactionTerms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost calculation and dating done by TransactionController.createTransaction for every purchase
+ * or lease. legacyDates keeps the SimpleDateFormat and Calendar version it replaced as a reference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionTermsBenchmark {
+
+    @Param({"Purchase", "Lease"})
+    public String transactionType;
+
+    private Game game;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        game = Fixtures.game(1, new Random(42));
+        transaction = new Transaction();
+        transaction.setTransactionType(transactionType);
+    }
+
+    @Benchmark
+    public double cost() {
+        return TransactionTerms.cost(game, transaction.getTransactionType());
+    }
+
+    @Benchmark
+    public Transaction dates() {
+        TransactionTerms.applyDates(transaction, LocalDate.now());
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction legacyDates() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        transaction.setTransactionDate(dateFormat.format(new Date()));
+        if ("Lease".equals(transaction.getTransactionType())) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.add(Calendar.DAY_OF_MONTH, 30);
+            transaction.setExpiryDate(dateFormat.format(calendar.getTime()));
+        }
+        return transaction;
+    }
+}
@@ -1,9 +1,14 @@
 package dws;
 
+import dws.config.NativeImageHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeImageHints.class)
 public class DigitalGameStoreWebServicesApplication {
     public static void main(String[] args) {
         SpringApplication.run(DigitalGameStoreWebServicesApplication.class, args);
@@ -0,0 +1,52 @@
+package dws.catalog;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Monotonic version of the game catalogue, bumped on every catalogue write.
+ * Clients poll it through GET /api/games/version to decide whether anything they
+ * derived from the catalogue (cached lists, rendered pages) is still current.
+ * Kept in the catalog_version row (migration V6) rather than in memory, so every API instance
+ * behind a load balancer reports the same version and a restart never changes it.
+ */
+@Component
+public class CatalogVersion {
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads the version from the primary; outside a read-only transaction, so never from the replica.
+     *
+     * @return The current catalogue version
+     */
+    public long current() {
+        return jdbcTemplate.queryForObject("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+    }
+
+    /**
+     * Marks the catalogue as changed. Within a transaction the new version commits with it, and other
+     * catalogue writers wait for that commit.
+     *
+     * @return The new catalogue version
+     */
+    public long bump() {
+        // LAST_INSERT_ID(expr) hands the incremented value back on the same connection
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE catalog_version SET version = LAST_INSERT_ID(version + 1) WHERE id = 1");
+                try (ResultSet resultSet = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+            }
+        });
+    }
+}
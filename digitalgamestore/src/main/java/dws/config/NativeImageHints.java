@@ -0,0 +1,60 @@
+package dws.config;
+
+import dws.controllers.GamePage;
+import dws.controllers.UserProfile;
+import dws.entities.Game;
+import dws.entities.Transaction;
+import dws.entities.User;
+import dws.events.ChangeEvent;
+import dws.repositories.GameRepository;
+import dws.shared.tracing.TraceStore;
+import dws.tracing.JdbcTimingListener;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the GraalVM native executable (gradle nativeCompile).
+ * Spring's AOT processing already infers most of these from the entity scan and the controller
+ * signatures; they are declared here as well so the native build does not depend on that inference:
+ * - Hibernate reads and writes entity fields and instantiates entities through their default constructor.
+ * - Jackson reads and writes entities and response records through Lombok-generated accessors.
+ * - The MariaDB driver is loaded by name and reads its version and option files from the classpath.
+ * - The second-level cache provider is loaded by name and reads ehcache.xml from the classpath.
+ * - The JDBC timing session listener is instantiated by name.
+ */
+public class NativeImageHints implements RuntimeHintsRegistrar {
+    private static final List<Class<?>> ENTITIES = List.of(Game.class, User.class, Transaction.class);
+    private static final List<Class<?>> RESPONSES = List.of(GamePage.class, UserProfile.class,
+        GameRepository.GameSummary.class, ChangeEvent.GameChange.class, ChangeEvent.BalanceChange.class,
+        ChangeEvent.CatalogState.class, TraceStore.TraceReport.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        ENTITIES.forEach(entity -> bindings.registerReflectionHints(hints.reflection(), entity));
+        RESPONSES.forEach(response -> bindings.registerReflectionHints(hints.reflection(), response));
+
+        hints.reflection().registerType(TypeReference.of("org.mariadb.jdbc.Driver"),
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"),
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(JdbcTimingListener.class,
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources()
+            .registerPattern("mariadb.properties")
+            .registerPattern("driver.properties")
+            .registerPattern("deprecated.properties")
+            .registerPattern("ehcache.xml")
+            .registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,23 @@
+package dws.config;
+
+import dws.tracing.ControllerTiming;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final ControllerTiming controllerTiming;
+
+    public WebMvcConfig(ControllerTiming controllerTiming) {
+        this.controllerTiming = controllerTiming;
+    }
+
+    /**
+     * Starts the controller phase of request traces when the handler is invoked.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(controllerTiming);
+    }
+}
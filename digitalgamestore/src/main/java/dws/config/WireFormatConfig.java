@@ -0,0 +1,42 @@
+package dws.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves Smile, Jackson's binary JSON encoding, to clients that ask for it with
+ * Accept: application/x-jackson-smile. JSON remains the default for everyone else.
+ * The Smile mapper is built from Spring Boot's Jackson builder, so dates and
+ * other settings serialise the same way as in JSON.
+ * Maps (error bodies and small status responses) are always written as JSON,
+ * so error messages stay readable in client logs.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+    private final Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder;
+
+    public WireFormatConfig(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
+        this.jacksonObjectMapperBuilder = jacksonObjectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replaces Spring MVC's default Smile converter, which uses a plain, unconfigured mapper
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                jacksonObjectMapperBuilder.factory(new SmileFactory()).build()) {
+            @Override
+            public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+                return !Map.class.isAssignableFrom(clazz) && super.canWrite(clazz, mediaType);
+            }
+        });
+    }
+}
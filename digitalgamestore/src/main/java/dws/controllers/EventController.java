@@ -0,0 +1,53 @@
+package dws.controllers;
+
+import dws.events.ChangeEventStream;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller streaming change events to clients that cache API data.
+ * Base URL path: /api/events
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+    private final ChangeEventStream changeEvents;
+
+    public EventController(ChangeEventStream changeEvents) {
+        this.changeEvents = changeEvents;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of changes:
+     * game (a game was created, updated or deleted), catalog (any game may have changed) and
+     * balance (a user's balance after a purchase or account update), each with the new catalogue
+     * version or balance. Every subscription first receives a sync event with the current
+     * catalogue version, or a reset event if the events missed since Last-Event-ID are no longer held.
+     *
+     * @param lastEventId Id of the last event received, sent by EventSource-style clients on reconnect
+     * @param lastEventIdParam The same, for clients that cannot set headers
+     * @return The event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                                   @RequestParam(name = "lastEventId", required = false) String lastEventIdParam) {
+        String resumeFrom = lastEventId != null ? lastEventId : lastEventIdParam;
+        return changeEvents.subscribe(resumeFrom == null ? null : parseEventId(resumeFrom));
+    }
+
+    /**
+     * An id this server cannot have sent resumes nothing, so the subscriber gets a reset event.
+     */
+    private static Long parseEventId(String id) {
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
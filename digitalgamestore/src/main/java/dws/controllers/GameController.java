@@ -1,15 +1,29 @@
 package dws.controllers;
 
+import dws.catalog.CatalogVersion;
+import dws.datasource.ReadRouting;
+import dws.datasource.ReadYourWrites;
 import dws.entities.Game;
+import dws.events.ChangeEventStream;
 import dws.repositories.GameRepository;
+import dws.repositories.GameRepository.GameSummary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * REST Controller for managing Game entities.
@@ -20,22 +34,46 @@ import java.util.List;
 @RequestMapping("/api/games")
 public class GameController {
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_CATALOG_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("title", "releaseDate", "price", "leasePrice");
     private final GameRepository gameRepository;
+    private final CatalogVersion catalogVersion;
+    private final ChangeEventStream changeEvents;
+    private final ReadYourWrites readYourWrites;
 
-    public GameController(GameRepository gameRepository) {
+    public GameController(GameRepository gameRepository, CatalogVersion catalogVersion,
+                          ChangeEventStream changeEvents, ReadYourWrites readYourWrites) {
         this.gameRepository = gameRepository;
+        this.catalogVersion = catalogVersion;
+        this.changeEvents = changeEvents;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
-     * Retrieves all games from the database.
+     * Retrieves all games from the database, or only the requested ones.
+     * Passing ids (e.g. ?ids=1,2,3) looks the games up in a single query;
+     * IDs that don't exist are simply absent from the result.
      *
-     * @return List of all Game entities
+     * @param ids Optional IDs of the games to return
+     * @return List of the matching Game entities
+     * @throws ResponseStatusException with BAD_REQUEST if more than 100 IDs are requested
      * @throws ResponseStatusException with INTERNAL_SERVER_ERROR if database access fails
      */
     @GetMapping
-    public List<Game> getAllGames() {
-        logger.info("Fetching all games");
-        try {
+    public List<Game> getAllGames(@RequestParam(required = false) List<Integer> ids) {
+        if (ids != null) {
+            if (ids.size() > MAX_BATCH_SIZE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("At most %d ids may be requested at once", MAX_BATCH_SIZE));
+            }
+            logger.atDebug().addKeyValue("count", ids.size()).log("Fetching games by id");
+            try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+                return ids.isEmpty() ? List.of() : gameRepository.findAllById(ids);
+            }
+        }
+        logger.debug("Fetching all games");
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
             return gameRepository.findAll();
         } catch (Exception e) {
             logger.error("Error fetching games: {}", e.getMessage());
@@ -43,6 +81,77 @@ public class GameController {
         }
     }
 
+    /**
+     * Returns the current catalogue version, which changes whenever a game is created,
+     * updated or deleted. Lets clients validate catalogue-derived caches without
+     * downloading the catalogue.
+     *
+     * @return Map with a single "version" entry
+     */
+    @GetMapping("/version")
+    public Map<String, Long> getCatalogVersion() {
+        return Map.of("version", catalogVersion.current());
+    }
+
+    /**
+     * Searches the catalogue one page at a time, so callers never download the whole catalogue.
+     * Filtering, sorting and paging all happen in the database.
+     *
+     * @param q Optional case-insensitive title fragment
+     * @param genre Optional genre the game must have
+     * @param sort Field to sort by (title, releaseDate, price or leasePrice), prefixed with '-' for descending
+     * @param page Zero-based page to return
+     * @param size Number of games per page, capped at 100
+     * @return The requested page of game summaries
+     * @throws ResponseStatusException with BAD_REQUEST if the page, size or sort is invalid
+     */
+    @GetMapping("/catalog")
+    public GamePage searchCatalog(@RequestParam(defaultValue = "") String q,
+                                  @RequestParam(defaultValue = "") String genre,
+                                  @RequestParam(defaultValue = "title") String sort,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
+        }
+        boolean descending = sort.startsWith("-");
+        String field = descending ? sort.substring(1) : sort;
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Sort must be one of " + SORTABLE_FIELDS + ", optionally prefixed with '-'");
+        }
+        int pageSize = Math.min(size, MAX_CATALOG_PAGE_SIZE);
+        // gameId breaks ties so rows never repeat or vanish between pages
+        Sort order = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, field).and(Sort.by("gameId"));
+        logger.debug("Searching catalogue: q='{}', genre='{}', sort={}, page={}, size={}", q, genre, sort, page, pageSize);
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            Page<GameSummary> games = gameRepository.findByTitleContainingIgnoreCaseAndGenreContaining(
+                q.trim(), genre.trim(), PageRequest.of(page, pageSize, order));
+            return new GamePage(games.getContent(), page, pageSize, games.getTotalElements(), games.getTotalPages());
+        }
+    }
+
+    /**
+     * Lists every genre used in the catalogue, sorted alphabetically.
+     *
+     * @return Sorted, distinct genres
+     */
+    @GetMapping("/genres")
+    public Set<String> getGenres() {
+        List<String> values;
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            values = gameRepository.findDistinctGenres();
+        }
+        Set<String> genres = new TreeSet<>();
+        for (String value : values) {
+            Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(genre -> !genre.isEmpty())
+                .forEach(genres::add);
+        }
+        return genres;
+    }
+
     /**
      * Retrieves a specific game by its ID.
      *
@@ -53,19 +162,19 @@ public class GameController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Game> getGame(@PathVariable int id) {
-        logger.info("Fetching game with id: {}", id);
-        try {
+        logger.atDebug().addKeyValue("gameId", id).log("Fetching game");
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
             return gameRepository.findById(id)
                 .map(game -> {
                     logger.debug("Found game: {}", game.getTitle());
                     return ResponseEntity.ok(game);
                 })
                 .orElseThrow(() -> {
-                    logger.warn("Game not found with id: {}", id);
+                    logger.atWarn().addKeyValue("gameId", id).log("Game not found");
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
                 });
         } catch (Exception e) {
-            logger.error("Error fetching game {}: {}", id, e.getMessage());
+            logger.atError().addKeyValue("gameId", id).log("Error fetching game: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error fetching game");
         }
     }
@@ -78,10 +187,12 @@ public class GameController {
      */
     @GetMapping("/search")
     public List<Game> searchGames(@RequestParam(required = false) String genre) {
-        if (genre != null && !genre.isEmpty()) {
-            return gameRepository.findByGenreContaining(genre);
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            if (genre != null && !genre.isEmpty()) {
+                return gameRepository.findByGenreContaining(genre);
+            }
+            return gameRepository.findAll();
         }
-        return gameRepository.findAll();
     }
 
     /**
@@ -93,11 +204,15 @@ public class GameController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public Game createGame(@RequestBody Game game) {
         if (game.getGameId() != 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Game ID must not be provided");
         }
-        return gameRepository.save(game);
+        Game savedGame = gameRepository.save(game);
+        changeEvents.gameChanged(savedGame.getGameId(), "created");
+        readYourWrites.catalogWritten();
+        return savedGame;
     }
 
     /**
@@ -109,26 +224,40 @@ public class GameController {
      * @throws ResponseStatusException with NOT_FOUND if game doesn't exist
      */
     @PutMapping("/{id}")
+    @Transactional
     public Game updateGame(@PathVariable int id, @RequestBody Game game) {
         if (!gameRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
         }
         game.setGameId(id);
-        return gameRepository.save(game);
+        Game updatedGame = gameRepository.save(game);
+        changeEvents.gameChanged(id, "updated");
+        readYourWrites.catalogWritten();
+        return updatedGame;
     }
 
     /**
      * Deletes a game from the database.
      *
      * @param id The ID of the game to delete
-     * @throws ResponseStatusException with NOT_FOUND if game doesn't exist
+     * @throws ResponseStatusException with NOT_FOUND if game doesn't exist,
+     *         or CONFLICT if the game has been purchased or leased
      */
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteGame(@PathVariable int id) {
         if (!gameRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
         }
-        gameRepository.deleteById(id);
+        try {
+            gameRepository.deleteById(id);
+            // Flush here so a foreign key violation is reported as a conflict rather than at commit
+            gameRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Game has transactions and cannot be deleted");
+        }
+        changeEvents.gameChanged(id, "deleted");
+        readYourWrites.catalogWritten();
     }
 }
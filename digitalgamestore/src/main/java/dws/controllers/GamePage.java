@@ -0,0 +1,22 @@
+package dws.controllers;
+
+import dws.repositories.GameRepository.GameSummary;
+
+import java.util.List;
+
+/**
+ * Page of search results returned by GET /api/games/catalog.
+ *
+ * @param games The games on this page, without descriptions
+ * @param page Zero-based index of the returned page
+ * @param size Page size used
+ * @param totalGames Total number of games matching the search
+ * @param totalPages Total number of pages at this size
+ */
+public record GamePage(
+        List<GameSummary> games,
+        int page,
+        int size,
+        long totalGames,
+        int totalPages) {
+}
@@ -1,20 +1,26 @@
 package dws.controllers;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import dws.datasource.ReadRouting;
+import dws.datasource.ReadYourWrites;
 import dws.entities.*;
+import dws.events.ChangeEventStream;
 import dws.repositories.*;
+import dws.transactions.TransactionTerms;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * REST Controller for managing Transaction entities.
@@ -27,17 +33,25 @@ import java.util.Date;
 public class TransactionController {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9._-]{1,64}");
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final ReadYourWrites readYourWrites;
+    private final ChangeEventStream changeEvents;
 
     public TransactionController(
             TransactionRepository transactionRepository,
             UserRepository userRepository,
-            GameRepository gameRepository) {
+            GameRepository gameRepository,
+            ReadYourWrites readYourWrites,
+            ChangeEventStream changeEvents) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.gameRepository = gameRepository;
+        this.readYourWrites = readYourWrites;
+        this.changeEvents = changeEvents;
     }
 
     /**
@@ -79,35 +93,54 @@ public class TransactionController {
     /**
      * Creates a new transaction for a game purchase or lease.
      * Validates user balance and updates it accordingly.
+     * With an Idempotency-Key header the request can safely be sent again: a key that was already
+     * recorded returns the transaction created for it, without charging the user a second time.
      *
      * @param transaction Transaction object containing purchase/lease details
-     * @return ResponseEntity containing the created Transaction
+     * @param idempotencyKey Client-generated key of this purchase, optional
+     * @return ResponseEntity containing the created Transaction, or the one recorded for the key
      * @throws ResponseStatusException with NOT_FOUND if user or game don't exist
-     * @throws ResponseStatusException with BAD_REQUEST if user has insufficient funds
+     * @throws ResponseStatusException with BAD_REQUEST if user has insufficient funds or the key is malformed
+     * @throws ResponseStatusException with CONFLICT if the key belongs to a different or concurrent request
      * @throws ResponseStatusException with INTERNAL_SERVER_ERROR if transaction creation fails
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction) {
-        logger.info("Creating transaction: User {} for game {}", 
-            transaction.getUserId(), transaction.getGameId());
+    @Transactional
+    public ResponseEntity<Transaction> createTransaction(
+            @RequestBody Transaction transaction,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        logger.atInfo()
+            .addKeyValue("userId", transaction.getUserId())
+            .addKeyValue("gameId", transaction.getGameId())
+            .addKeyValue("idempotencyKey", idempotencyKey)
+            .log("Creating transaction");
+        if (idempotencyKey != null) {
+            if (!VALID_KEY.matcher(idempotencyKey).matches()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed " + IDEMPOTENCY_KEY);
+            }
+            Optional<Transaction> recorded = transactionRepository.findByIdempotencyKey(idempotencyKey);
+            if (recorded.isPresent()) {
+                return replay(recorded.get(), transaction);
+            }
+            transaction.setIdempotencyKey(idempotencyKey);
+        }
         try {
             // Validate user and game existence
             User user = userRepository.findById(transaction.getUserId())
                 .orElseThrow(() -> {
-                    logger.warn("User not found: {}", transaction.getUserId());
+                    logger.atWarn().addKeyValue("userId", transaction.getUserId()).log("User not found");
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
                 });
             
             Game game = gameRepository.findById(transaction.getGameId())
                 .orElseThrow(() -> {
-                    logger.warn("Game not found: {}", transaction.getGameId());
+                    logger.atWarn().addKeyValue("gameId", transaction.getGameId()).log("Game not found");
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found");
                 });
 
             // Calculate cost and check balance
-            double cost = "Purchase".equals(transaction.getTransactionType()) 
-                ? game.getPrice() : game.getLeasePrice();
+            double cost = TransactionTerms.cost(game, transaction.getTransactionType());
 
             if (user.getAccountBalance() < cost) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
@@ -118,19 +151,28 @@ public class TransactionController {
             userRepository.save(user);
 
             // Format dates as strings
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-            transaction.setTransactionDate(dateFormat.format(new Date()));
-            
-            if ("Lease".equals(transaction.getTransactionType())) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.add(Calendar.DAY_OF_MONTH, 30);
-                transaction.setExpiryDate(dateFormat.format(calendar.getTime()));
-            }
-            
+            TransactionTerms.applyDates(transaction, LocalDate.now());
             transaction.setAmount(cost);
+            Transaction savedTransaction = transactionRepository.save(transaction);
+            readYourWrites.userWritten(user.getUserId(), user.getUsername());
+            changeEvents.balanceChanged(user.getUserId(), user.getAccountBalance());
 
-            logger.info("Transaction created successfully");
-            return ResponseEntity.ok(transactionRepository.save(transaction));
+            logger.atInfo()
+                .addKeyValue("transactionId", savedTransaction.getTransactionId())
+                .addKeyValue("amount", cost)
+                .log("Transaction created");
+            return ResponseEntity.ok(savedTransaction);
+        } catch (DataIntegrityViolationException e) {
+            String violation = e.getMostSpecificCause().getMessage();
+            if (idempotencyKey == null || violation == null || !violation.contains("ux_transaction_idempotency_key")) {
+                logger.error("Transaction creation failed: {}", e.getMessage());
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to create transaction: " + e.getMessage());
+            }
+            // The same key was inserted by a request that committed while this one was running
+            logger.atWarn().addKeyValue("idempotencyKey", idempotencyKey).log("Concurrent transaction creation");
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A transaction with this " + IDEMPOTENCY_KEY + " is already being recorded");
         } catch (Exception e) {
             logger.error("Transaction creation failed: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
@@ -138,6 +180,27 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Answers a repeated creation request with the transaction recorded for its idempotency key.
+     *
+     * @param recorded Transaction created by the first request with the key
+     * @param requested Transaction the repeated request asks for
+     * @return ResponseEntity containing the recorded Transaction
+     * @throws ResponseStatusException with CONFLICT if the key was used for a different transaction
+     */
+    private ResponseEntity<Transaction> replay(Transaction recorded, Transaction requested) {
+        if (recorded.getUserId() != requested.getUserId()
+                || recorded.getGameId() != requested.getGameId()
+                || !recorded.getTransactionType().equals(requested.getTransactionType())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                IDEMPOTENCY_KEY + " was already used for a different transaction");
+        }
+        logger.atInfo()
+            .addKeyValue("transactionId", recorded.getTransactionId())
+            .log("Transaction already recorded for idempotency key");
+        return ResponseEntity.ok(recorded);
+    }
+
     /**
      * Deletes an existing transaction.
      *
@@ -147,13 +210,14 @@ public class TransactionController {
      */
     @DeleteMapping("/{transactionId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteTransaction(@PathVariable int transactionId) {
         try {
-            if (!transactionRepository.existsById(transactionId)) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                    String.format("Transaction with ID %d not found", transactionId));
-            }
-            transactionRepository.deleteById(transactionId);
+            Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
+                    String.format("Transaction with ID %d not found", transactionId)));
+            transactionRepository.delete(transaction);
+            readYourWrites.userWritten(transaction.getUserId(), null);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 String.format("Failed to delete transaction with ID %d", transactionId), e);
@@ -170,7 +234,7 @@ public class TransactionController {
      */
     @GetMapping("/user/{userId}")
     public List<Transaction> getTransactionsByUserId(@PathVariable int userId) {
-        try {
+        try (ReadRouting.Pin pin = readYourWrites.readUser(userId)) {
             if (!userRepository.existsById(userId)) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     String.format("User with ID %d not found", userId));
@@ -1,13 +1,27 @@
 package dws.controllers;
 
+import dws.entities.Transaction;
 import dws.entities.User;
+import dws.datasource.ReadRouting;
+import dws.datasource.ReadYourWrites;
+import dws.events.ChangeEventStream;
+import dws.repositories.GameRepository;
+import dws.repositories.TransactionRepository;
 import dws.repositories.UserRepository;
+import dws.security.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,39 +34,63 @@ import org.slf4j.LoggerFactory;
 @RequestMapping("/api/users")
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+    private static final int MAX_PROFILE_PAGE_SIZE = 100;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final GameRepository gameRepository;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ReadYourWrites readYourWrites;
+    private final ChangeEventStream changeEvents;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(
+            UserRepository userRepository,
+            TransactionRepository transactionRepository,
+            GameRepository gameRepository,
+            LoginRateLimiter loginRateLimiter,
+            ReadYourWrites readYourWrites,
+            ChangeEventStream changeEvents) {
         this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.gameRepository = gameRepository;
+        this.loginRateLimiter = loginRateLimiter;
+        this.readYourWrites = readYourWrites;
+        this.changeEvents = changeEvents;
     }
 
     /**
      * Authenticates a user with username and password.
+     * Attempts are rate limited per username and per client address before any database access.
      *
      * @param credentials A map containing the user's username and password
+     * @param request The current request, used to resolve the client address
      * @return ResponseEntity containing the authenticated User
+     * @throws ResponseStatusException with TOO_MANY_REQUESTS if the rate limit is exceeded
      * @throws ResponseStatusException with UNAUTHORIZED if credentials are invalid
      * @throws ResponseStatusException with INTERNAL_SERVER_ERROR if authentication fails
      */
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<User> login(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String username = credentials.get("username");
         String password = credentials.get("password");
-        
-        logger.info("Login attempt for user: {}", username);
-        try {
+
+        if (!loginRateLimiter.tryAcquire(username, request.getRemoteAddr())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts");
+        }
+
+        logger.atInfo().addKeyValue("username", username).log("Login attempt");
+        try (ReadRouting.Pin pin = readYourWrites.readUser(username)) {
             return userRepository.findByUsername(username)
                 .filter(user -> user.getPassword().equals(password))
                 .map(user -> {
-                    logger.info("Successful login for user: {}", username);
+                    logger.atInfo().addKeyValue("userId", user.getUserId()).log("Successful login");
                     return ResponseEntity.ok(user);
                 })
                 .orElseThrow(() -> {
-                    logger.warn("Failed login attempt for user: {}", username);
+                    logger.atWarn().addKeyValue("username", username).log("Failed login attempt");
                     return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
                 });
         } catch (Exception e) {
-            logger.error("Login error for user {}: {}", username, e.getMessage());
+            logger.atError().addKeyValue("username", username).log("Login error: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Login error");
         }
     }
@@ -66,25 +104,65 @@ public class UserController {
      */
     @GetMapping("/{userId}")
     public ResponseEntity<User> getUser(@PathVariable int userId) {
-        logger.info("Fetching user with ID: {}", userId);
-        try {
+        logger.atDebug().addKeyValue("userId", userId).log("Fetching user");
+        try (ReadRouting.Pin pin = readYourWrites.readUser(userId)) {
             return userRepository.findById(userId)
                 .map(user -> {
-                    logger.info("User found with ID: {}", userId);
+                    logger.atDebug().addKeyValue("userId", userId).log("User found");
                     return ResponseEntity.ok(user);
                 })
                 .orElseThrow(() -> {
-                    logger.warn("User not found with ID: {}", userId);
+                    logger.atWarn().addKeyValue("userId", userId).log("User not found");
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, 
                         String.format("User with ID %d not found", userId));
                 });
         } catch (Exception e) {
-            logger.error("Error fetching user with ID {}: {}", userId, e.getMessage());
+            logger.atError().addKeyValue("userId", userId).log("Error fetching user: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 String.format("Failed to retrieve user with ID %d", userId), e);
         }
     }
 
+    /**
+     * Retrieves everything the profile page needs in one call: the user, one page of
+     * their transactions (newest first) and the titles of the games those transactions reference.
+     * Titles are resolved with a single IN query instead of one lookup per transaction.
+     *
+     * @param userId The unique identifier of the user
+     * @param page Zero-based page of transactions to return
+     * @param size Number of transactions per page, capped at 100
+     * @return The aggregated UserProfile
+     * @throws ResponseStatusException with NOT_FOUND if user doesn't exist
+     * @throws ResponseStatusException with BAD_REQUEST if paging parameters are invalid
+     */
+    @GetMapping("/{userId}/profile")
+    public UserProfile getUserProfile(@PathVariable int userId,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readUser(userId)) {
+            User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    String.format("User with ID %d not found", userId)));
+
+            int pageSize = Math.min(size, MAX_PROFILE_PAGE_SIZE);
+            Page<Transaction> transactions = transactionRepository.findByUserId(userId,
+                PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "transactionId")));
+
+            Set<Integer> gameIds = transactions.stream()
+                .map(Transaction::getGameId)
+                .collect(Collectors.toSet());
+            Map<Integer, String> gameTitles = gameIds.isEmpty() ? Map.of()
+                : gameRepository.findByGameIdIn(gameIds).stream()
+                    .collect(Collectors.toMap(GameRepository.GameTitle::getGameId, GameRepository.GameTitle::getTitle));
+
+            return new UserProfile(user, transactions.getContent(), gameTitles,
+                page, pageSize, transactions.getTotalElements(), transactions.getTotalPages());
+        }
+    }
+
     /**
      * Retrieves all users from the database.
      *
@@ -93,7 +171,7 @@ public class UserController {
      */
     @GetMapping
     public List<User> getAllUsers() {
-        logger.info("Fetching all users");
+        logger.debug("Fetching all users");
         try {
             return userRepository.findAll();
         } catch (Exception e) {
@@ -112,24 +190,26 @@ public class UserController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public User createUser(@RequestBody User user) {
-        logger.info("Creating new user with username: {}", user.getUsername());
+        logger.atInfo().addKeyValue("username", user.getUsername()).log("Creating user");
         try {
             if (user == null) {
                 logger.warn("User data is null");
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User data cannot be null");
             }
             if (userRepository.existsByUsername(user.getUsername())) {
-                logger.warn("Username already exists: {}", user.getUsername());
+                logger.atWarn().addKeyValue("username", user.getUsername()).log("Username already exists");
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists");
             }
             if (userRepository.existsByEmail(user.getEmail())) {
-                logger.warn("Email already exists: {}", user.getEmail());
+                logger.atWarn().addKeyValue("email", user.getEmail()).log("Email already exists");
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists");
             }
             // The password comes already encoded from the client
             User savedUser = userRepository.save(user);
-            logger.info("User created with ID: {}", savedUser.getUserId());
+            readYourWrites.userWritten(savedUser.getUserId(), savedUser.getUsername());
+            logger.atInfo().addKeyValue("userId", savedUser.getUserId()).log("User created");
             return savedUser;
         } catch (Exception e) {
             logger.error("Error creating user: {}", e.getMessage());
@@ -147,21 +227,25 @@ public class UserController {
      * @throws ResponseStatusException with NOT_FOUND if user doesn't exist
      */
     @PutMapping("/{userId}")
+    @Transactional
     public User updateUser(@PathVariable int userId, @RequestBody User user) {
-        logger.info("Updating user with ID: {}", userId);
+        logger.atInfo().addKeyValue("userId", userId).log("Updating user");
         try {
             if (!userRepository.existsById(userId)) {
-                logger.warn("User not found with ID: {}", userId);
+                logger.atWarn().addKeyValue("userId", userId).log("User not found");
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     String.format("User with ID %d not found", userId));
             }
             user.setUserId(userId);
             // Remove password encoding check and just save the user as is
             User updatedUser = userRepository.save(user);
-            logger.info("User updated with ID: {}", userId);
+            readYourWrites.userWritten(userId, updatedUser.getUsername());
+            // Top-ups are account updates with a new balance
+            changeEvents.balanceChanged(userId, updatedUser.getAccountBalance());
+            logger.atInfo().addKeyValue("userId", userId).log("User updated");
             return updatedUser;
         } catch (Exception e) {
-            logger.error("Error updating user with ID {}: {}", userId, e.getMessage());
+            logger.atError().addKeyValue("userId", userId).log("Error updating user: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 String.format("Failed to update user with ID %d", userId), e);
         }
@@ -175,19 +259,21 @@ public class UserController {
      */
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteUser(@PathVariable int userId) {
-        logger.info("Deleting user with ID: {}", userId);
+        logger.atInfo().addKeyValue("userId", userId).log("Deleting user");
         try {
             if (!userRepository.existsById(userId)) {
-                logger.warn("User not found with ID: {}", userId);
+                logger.atWarn().addKeyValue("userId", userId).log("User not found");
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     String.format("User with ID %d not found", userId));
             }
             // Transactions will be deleted automatically due to CASCADE configuration in entity
             userRepository.deleteById(userId);
-            logger.info("User deleted with ID: {}", userId);
+            readYourWrites.userWritten(userId, null);
+            logger.atInfo().addKeyValue("userId", userId).log("User deleted");
         } catch (Exception e) {
-            logger.error("Error deleting user with ID {}: {}", userId, e.getMessage());
+            logger.atError().addKeyValue("userId", userId).log("Error deleting user: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 String.format("Failed to delete user with ID %d", userId), e);
         }
@@ -0,0 +1,29 @@
+package dws.controllers;
+
+import dws.entities.Transaction;
+import dws.entities.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate returned by GET /api/users/{userId}/profile.
+ * Bundles everything the profile page renders so the client needs a single round trip.
+ *
+ * @param user The user whose profile is shown
+ * @param transactions One page of the user's transactions, newest first
+ * @param gameTitles Titles of the games referenced by the transactions, keyed by game ID
+ * @param page Zero-based index of the returned page
+ * @param size Requested page size
+ * @param totalTransactions Total number of transactions the user has
+ * @param totalPages Total number of pages at the requested size
+ */
+public record UserProfile(
+        User user,
+        List<Transaction> transactions,
+        Map<Integer, String> gameTitles,
+        int page,
+        int size,
+        long totalTransactions,
+        int totalPages) {
+}
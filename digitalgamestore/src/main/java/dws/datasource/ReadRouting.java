@@ -0,0 +1,47 @@
+package dws.datasource;
+
+/**
+ * Per-thread override of read routing.
+ * While a thread is pinned, its read-only transactions use the primary instead of the replica.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+    private static final Pin NO_OP = () -> { };
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Sends the current thread's reads to the primary until the returned pin is closed.
+     * Pins nest; closing one restores the routing that was in effect when it was taken.
+     *
+     * @return Pin to close, typically in a try-with-resources block
+     */
+    public static Pin pinToPrimary() {
+        boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(true);
+        return () -> PINNED_TO_PRIMARY.set(previous);
+    }
+
+    /**
+     * Returns a pin that changes nothing, for callers that only sometimes need to pin.
+     *
+     * @return Pin whose close does nothing
+     */
+    public static Pin none() {
+        return NO_OP;
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get();
+    }
+
+    /**
+     * Routing override that ends when closed.
+     */
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,104 @@
+package dws.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read-your-writes consistency on top of replica routing.
+ * Write endpoints record the user they changed; for the following window, requests that read
+ * that user's data are pinned to the primary, so a purchase or top-up is never followed by a
+ * stale balance or history from a lagging replica. The window should exceed the usual replica lag.
+ * Game writes, on this instance or another, pin every catalogue read for the window in the same way:
+ * games read from a lagging replica would otherwise go back into the second-level cache, where
+ * purchases take their price from, and stay there until they expire.
+ * Without a replica every read uses the primary and pinning has no effect.
+ */
+@Component
+public class ReadYourWrites {
+    private static final String CATALOG_KEY = "catalog";
+
+    private final ConcurrentMap<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWrites(@Value("${datasource.read-your-writes.window:PT5S}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records a write to a user's data (account, balance or transactions).
+     *
+     * @param userId ID of the user that was changed
+     * @param username The user's username, or null if not known
+     */
+    public void userWritten(int userId, String username) {
+        long until = System.nanoTime() + windowNanos;
+        recentWrites.put(userKey(userId), until);
+        if (username != null) {
+            recentWrites.put(usernameKey(username), until);
+        }
+    }
+
+    /**
+     * Pins the current thread to the primary if the user was written within the window.
+     *
+     * @param userId ID of the user about to be read
+     * @return Pin to close once the reads are done
+     */
+    public ReadRouting.Pin readUser(int userId) {
+        return pinIfRecent(userKey(userId));
+    }
+
+    /**
+     * Pins the current thread to the primary if the user was written within the window.
+     *
+     * @param username Username of the user about to be read
+     * @return Pin to close once the reads are done
+     */
+    public ReadRouting.Pin readUser(String username) {
+        return username == null ? ReadRouting.none() : pinIfRecent(usernameKey(username));
+    }
+
+    /**
+     * Records a write to any game, or to the catalogue as a whole.
+     */
+    public void catalogWritten() {
+        recentWrites.put(CATALOG_KEY, System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Pins the current thread to the primary if a game was written within the window.
+     *
+     * @return Pin to close once the reads are done
+     */
+    public ReadRouting.Pin readCatalog() {
+        return pinIfRecent(CATALOG_KEY);
+    }
+
+    /**
+     * Forgets writes whose window has passed.
+     */
+    @Scheduled(fixedDelayString = "${datasource.read-your-writes.eviction-interval:PT1M}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(until -> until - now <= 0);
+    }
+
+    private ReadRouting.Pin pinIfRecent(String key) {
+        Long until = recentWrites.get(key);
+        return until != null && until - System.nanoTime() > 0 ? ReadRouting.pinToPrimary() : ReadRouting.none();
+    }
+
+    private static String userKey(int userId) {
+        return "id:" + userId;
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,44 @@
+package dws.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Publishes how far the replica is behind the primary as dws.datasource.replica.lag (seconds),
+ * read from SHOW REPLICA STATUS. The gauge is NaN while replication is stopped or the
+ * replica database is not replicating at all (for example two independent local databases).
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private final JdbcTemplate replica;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        Gauge.builder("dws.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .description("Seconds the replica is behind the primary (Seconds_Behind_Master)")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:PT5S}")
+    public void checkLag() {
+        try {
+            List<Long> lag = replica.query("SHOW REPLICA STATUS", (rs, row) -> {
+                long seconds = rs.getLong("Seconds_Behind_Master");
+                return rs.wasNull() ? null : seconds;
+            });
+            lagSeconds = lag.isEmpty() || lag.get(0) == null ? Double.NaN : lag.get(0);
+        } catch (Exception e) {
+            logger.debug("Could not read replica status: {}", e.getMessage());
+            lagSeconds = Double.NaN;
+        }
+    }
+}
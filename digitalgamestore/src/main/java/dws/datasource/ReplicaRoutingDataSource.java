@@ -0,0 +1,45 @@
+package dws.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and all others to the primary.
+ * The decision is made when a connection is fetched, so this data source must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction's read-only flag is only known once it has begun.
+ * Threads pinned through ReadRouting always use the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target { PRIMARY, REPLICA }
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = Counter.builder("dws.datasource.routing")
+            .description("Connections fetched through the routing data source, by target")
+            .tag("target", "primary")
+            .register(meterRegistry);
+        this.replicaConnections = Counter.builder("dws.datasource.routing")
+            .description("Connections fetched through the routing data source, by target")
+            .tag("target", "replica")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPinnedToPrimary()) {
+            replicaConnections.increment();
+            return Target.REPLICA;
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+}
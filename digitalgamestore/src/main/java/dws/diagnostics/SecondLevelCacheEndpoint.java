@@ -0,0 +1,92 @@
+package dws.diagnostics;
+
+import dws.datasource.ReadYourWrites;
+import dws.events.ChangeEventStream;
+import dws.invalidation.InvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit, miss and put counts of Hibernate's second-level and query cache, per region, at /actuator/l2cache.
+ * DELETE /actuator/l2cache empties every region, bumps the catalogue version, tells event stream
+ * subscribers the catalogue changed and has the other API instances do the same; use it after changing
+ * the Game table with SQL, which the cache cannot see. Catalogue reads then use the primary for the
+ * read-your-writes window, so the cache is not refilled from a replica that has not caught up.
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheEndpoint.class);
+
+    private final SessionFactory sessionFactory;
+    private final ChangeEventStream changeEvents;
+    private final InvalidationBus invalidationBus;
+    private final ReadYourWrites readYourWrites;
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory, ChangeEventStream changeEvents,
+                                    InvalidationBus invalidationBus, ReadYourWrites readYourWrites) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.changeEvents = changeEvents;
+        this.invalidationBus = invalidationBus;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @ReadOperation
+    public CacheReport report() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<RegionReport> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+            .sorted()
+            .map(name -> RegionReport.of(name, statistics.getCacheRegionStatistics(name)))
+            .toList();
+        return new CacheReport(statistics.isStatisticsEnabled(),
+            new Counts(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()),
+            new Counts(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()),
+            regions);
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        readYourWrites.catalogWritten();
+        sessionFactory.getCache().evictAll();
+        changeEvents.catalogChanged();
+        invalidationBus.publishAll();
+        logger.info("Second-level cache evicted");
+    }
+
+    /**
+     * @param statisticsEnabled Whether Hibernate collects statistics; all counts are zero otherwise
+     * @param entities Entity lookups answered from the cache across all entity regions
+     * @param queries Cacheable query executions answered from the query cache
+     */
+    public record CacheReport(boolean statisticsEnabled, Counts entities, Counts queries, List<RegionReport> regions) {
+    }
+
+    public record Counts(long hits, long misses, long puts) {
+    }
+
+    /**
+     * @param entriesInMemory Entries held by the region, or -1 when the provider does not report it (JCache does not)
+     */
+    public record RegionReport(String region, long hits, long misses, long puts, long entriesInMemory) {
+        static RegionReport of(String region, CacheRegionStatistics statistics) {
+            if (statistics == null) {
+                return new RegionReport(region, 0, 0, 0, -1);
+            }
+            return new RegionReport(region, statistics.getHitCount(), statistics.getMissCount(),
+                statistics.getPutCount(), Math.max(statistics.getElementCountInMemory(), -1));
+        }
+    }
+}
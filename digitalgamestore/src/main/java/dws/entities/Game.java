@@ -2,11 +2,20 @@ package dws.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 
+/**
+ * A game in the catalogue.
+ * Held in Hibernate's second-level cache (region dws.entities.Game in ehcache.xml): games are read on
+ * every catalogue request and purchase but change rarely, and writes through JPA update the cache.
+ */
 @Entity
 @Table(name = "Game")
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Game {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
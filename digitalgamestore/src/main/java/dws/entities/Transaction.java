@@ -1,5 +1,6 @@
 package dws.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -27,4 +28,9 @@ public class Transaction {
     
     @Column(nullable = false)
     private double amount;
+
+    // Taken from the Idempotency-Key request header, not from the body
+    @JsonIgnore
+    @Column(unique = true, length = 64)
+    private String idempotencyKey;
 }
\ No newline at end of file
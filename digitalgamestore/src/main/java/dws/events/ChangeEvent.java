@@ -0,0 +1,35 @@
+package dws.events;
+
+/**
+ * One change published on the event stream.
+ *
+ * @param id Position in the stream; ids increase by one per event
+ * @param type SSE event name, e.g. game or balance
+ * @param data Payload, serialised as JSON
+ */
+public record ChangeEvent(long id, String type, Object data) {
+    /**
+     * Payload of game events.
+     *
+     * @param change created, updated or deleted
+     * @param catalogVersion Catalogue version after the change
+     */
+    public record GameChange(int gameId, String change, long catalogVersion) {
+    }
+
+    /**
+     * Payload of balance events.
+     *
+     * @param accountBalance The user's balance after the change
+     */
+    public record BalanceChange(int userId, double accountBalance) {
+    }
+
+    /**
+     * Payload of catalog events, and of the sync and reset events that follow every subscription.
+     *
+     * @param catalogVersion Current catalogue version
+     */
+    public record CatalogState(long catalogVersion) {
+    }
+}
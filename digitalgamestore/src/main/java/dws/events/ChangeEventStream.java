@@ -0,0 +1,303 @@
+package dws.events;
+
+import dws.catalog.CatalogVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events stream of catalogue and balance changes, served at GET /api/events.
+ * Writes publish their change when their transaction commits, so subscribers never see a change
+ * that was rolled back and always read the committed data when they react to it.
+ *
+ * Events carry consecutive ids, seeded from the boot time, and the last
+ * replay-size events are kept. A subscriber reconnecting with Last-Event-ID gets the events it missed
+ * followed by a sync event; if they are no longer held (or were sent by an earlier run of the server),
+ * it gets a reset event instead and must discard everything it derived from earlier events.
+ *
+ * Every subscriber has its own queue of at most subscriber-buffer events, written to its connection
+ * by a virtual thread of its own, so a slow or stalled connection holds up nobody else. A subscriber
+ * whose queue is full is dropped: its queued events are replaced by a reset event and the stream ends
+ * once that is written; it reconnects and starts over.
+ */
+@Component
+public class ChangeEventStream {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventStream.class);
+
+    private final CatalogVersion catalogVersion;
+    private final int replaySize;
+    private final int subscriberBuffer;
+    private final long emitterTimeoutMillis;
+    private final Deque<ChangeEvent> recent = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("sse-send-", 0).factory());
+    private final Counter dropped;
+    // Guarded by recent, like everything handed to subscribers' queues
+    private long lastId = System.currentTimeMillis();
+    private long publishedCatalogVersion;
+
+    public ChangeEventStream(
+            CatalogVersion catalogVersion,
+            MeterRegistry meterRegistry,
+            @Value("${events.replay-size:1024}") int replaySize,
+            @Value("${events.subscriber-buffer:256}") int subscriberBuffer,
+            @Value("${events.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.catalogVersion = catalogVersion;
+        this.replaySize = replaySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        Gauge.builder("events.subscribers", subscribers, Set::size)
+            .description("Open subscriptions to the change event stream")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("events.subscribers.dropped")
+            .description("Subscribers dropped because events.subscriber-buffer events were waiting for them")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Bumps the catalogue version within the current transaction and publishes the game change once it
+     * commits, so neither pollers of the version nor subscribers can see the change before its data.
+     *
+     * @param gameId ID of the game that changed
+     * @param change created, updated or deleted
+     */
+    public void gameChanged(int gameId, String change) {
+        long version = catalogVersion.bump();
+        afterCommit(() -> publish("game", new ChangeEvent.GameChange(gameId, change, version)));
+    }
+
+    /**
+     * Publishes a game change committed by another API instance, which has already bumped the
+     * catalogue version.
+     *
+     * @param gameId ID of the game that changed
+     */
+    public void gameChangedElsewhere(int gameId) {
+        publish("game", new ChangeEvent.GameChange(gameId, "changed", catalogVersion.current()));
+    }
+
+    /**
+     * Bumps the catalogue version and publishes a catalog event, telling subscribers that any game may
+     * have changed; used when the catalogue was changed outside the API.
+     */
+    public void catalogChanged() {
+        long version = catalogVersion.bump();
+        afterCommit(() -> publish("catalog", new ChangeEvent.CatalogState(version)));
+    }
+
+    /**
+     * Publishes a catalog event with the current catalogue version, after another API instance changed
+     * the catalogue or its invalidations were lost; the version tells subscribers whether anything did change.
+     */
+    public void catalogChangedElsewhere() {
+        publish("catalog", new ChangeEvent.CatalogState(catalogVersion.current()));
+    }
+
+    /**
+     * Publishes a user's new balance once the current transaction commits.
+     *
+     * @param userId ID of the user whose balance may have changed
+     * @param accountBalance The balance being committed
+     */
+    public void balanceChanged(int userId, double accountBalance) {
+        afterCommit(() -> publish("balance", new ChangeEvent.BalanceChange(userId, accountBalance)));
+    }
+
+    /**
+     * Opens a subscription, replaying the events after lastEventId when they are still held.
+     *
+     * @param lastEventId Id of the last event the subscriber received, or null for a new subscriber
+     * @return Emitter streaming the events
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        long version = catalogVersion.current();
+        synchronized (recent) {
+            List<ChangeEvent> replay = replay(lastEventId);
+            String state = lastEventId == null || replay != null ? "sync" : "reset";
+            if (replay != null) {
+                replay.forEach(event -> subscriber.queue.add(toSse(event)));
+            }
+            // An event published since the version was read carries a newer one
+            long current = Math.max(version, publishedCatalogVersion);
+            subscriber.queue.add(toSse(new ChangeEvent(lastId, state, new ChangeEvent.CatalogState(current))));
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Sends a comment to every subscriber, so idle connections are kept open and dead ones are noticed.
+     */
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        synchronized (recent) {
+            subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat")));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void publish(String type, Object data) {
+        synchronized (recent) {
+            ChangeEvent event = new ChangeEvent(++lastId, type, data);
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            if (data instanceof ChangeEvent.GameChange change) {
+                publishedCatalogVersion = Math.max(publishedCatalogVersion, change.catalogVersion());
+            } else if (data instanceof ChangeEvent.CatalogState state) {
+                publishedCatalogVersion = Math.max(publishedCatalogVersion, state.catalogVersion());
+            }
+            // Queued while holding the lock, so every subscriber gets events in id order
+            subscribers.forEach(subscriber -> subscriber.offer(toSse(event)));
+        }
+    }
+
+    /**
+     * Called while holding the lock on recent.
+     *
+     * @return The events after lastEventId, or null if some of them are no longer held or they would
+     *         not fit in a subscriber's queue
+     */
+    private List<ChangeEvent> replay(Long lastEventId) {
+        if (lastEventId == null || lastEventId > lastId || lastId - lastEventId >= subscriberBuffer) {
+            return null;
+        }
+        long oldestHeld = recent.isEmpty() ? lastId + 1 : recent.getFirst().id();
+        if (lastEventId < oldestHeld - 1) {
+            return null;
+        }
+        return recent.stream().filter(event -> event.id() > lastEventId).toList();
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(ChangeEvent event) {
+        return SseEmitter.event()
+            .id(Long.toString(event.id()))
+            .name(event.type())
+            .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(e);
+        logger.debug("Dropped event subscriber: {}", e.getMessage());
+    }
+
+    /**
+     * One open stream: the events waiting for it, and whether a sender is writing them.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long resetId = -1;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues an event without waiting; a full queue drops the subscriber. Called while holding the
+         * lock on recent, so lastId is the id of the newest event, the one to resume after.
+         */
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (resetId >= 0) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                resetId = lastId;
+                subscribers.remove(this);
+                dropped.increment();
+                logger.atInfo()
+                    .addKeyValue("buffer", subscriberBuffer)
+                    .log("Event subscriber too slow, resetting its stream");
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Event delivery rejected during shutdown");
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (resetId < 0 && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+                if (resetId >= 0) {
+                    queue.clear();
+                    emitter.send(toSse(new ChangeEvent(resetId, "reset",
+                        new ChangeEvent.CatalogState(catalogVersion.current()))));
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Disconnected, or the catalogue version could not be read for the reset
+                drop(this, e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // An event queued after the last poll finds sending still set and leaves it to this sender
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dws.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versioning and loss detection shared by the bus implementations, which only move messages.
+ * Outgoing messages are numbered per instance. Incoming ones are compared with the last version
+ * received from their origin: duplicates and stragglers are dropped, and a jump means messages were
+ * lost, so listeners are told to drop everything. A heartbeat carrying the last version sent goes out
+ * every invalidation.heartbeat-interval, so a lost final message is noticed within that interval.
+ * A version is assigned and handed to send under one lock, so messages leave in version order and a
+ * heartbeat never carries a version whose message is still to be sent.
+ * The first message seen from an origin is taken as is.
+ */
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractInvalidationBus.class);
+
+    private final String origin = UUID.randomUUID().toString();
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private long lastVersion;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock receiveLock = new ReentrantLock();
+    private final Map<String, Long> lastReceived = new HashMap<>();
+    private final Counter applied;
+    private final Counter duplicates;
+    private final Counter gaps;
+
+    protected AbstractInvalidationBus(MeterRegistry meterRegistry) {
+        this.applied = received(meterRegistry, "applied");
+        this.duplicates = received(meterRegistry, "duplicate");
+        this.gaps = received(meterRegistry, "gap");
+    }
+
+    /**
+     * Sends a message to the other instances.
+     * Messages must reach each receiver in the order sent; losing some is tolerated.
+     * Called under the send lock, so implementations only hand the message over.
+     */
+    protected abstract void send(Invalidation invalidation);
+
+    @Override
+    public void publish(String entity, int key) {
+        sendLock.lock();
+        try {
+            send(new Invalidation(origin, ++lastVersion, entity, key));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @Override
+    public void publishAll() {
+        publish(Invalidation.ALL, 0);
+    }
+
+    @Override
+    public void subscribe(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        sendLock.lock();
+        try {
+            send(new Invalidation(origin, lastVersion, Invalidation.HEARTBEAT, 0));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * @return This instance's origin id
+     */
+    protected String origin() {
+        return origin;
+    }
+
+    /**
+     * Hands a message from any instance to the listeners; this instance's own messages are ignored.
+     */
+    protected void receive(Invalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        receiveLock.lock();
+        try {
+            Long last = lastReceived.get(invalidation.origin());
+            if (last != null && !invalidation.isHeartbeat() && invalidation.version() <= last) {
+                duplicates.increment();
+                return;
+            }
+            long expected = last == null ? invalidation.version()
+                : invalidation.isHeartbeat() ? last : last + 1;
+            if (invalidation.version() > expected) {
+                gaps.increment();
+                logger.atWarn()
+                    .addKeyValue("origin", invalidation.origin())
+                    .addKeyValue("expected", expected)
+                    .addKeyValue("received", invalidation.version())
+                    .log("Invalidations lost, dropping all cached entities");
+                listeners.forEach(InvalidationListener::invalidateAll);
+            }
+            if (last == null || invalidation.version() > last) {
+                lastReceived.put(invalidation.origin(), invalidation.version());
+            }
+            if (invalidation.isHeartbeat()) {
+                return;
+            }
+            applied.increment();
+            if (Invalidation.ALL.equals(invalidation.entity())) {
+                listeners.forEach(InvalidationListener::invalidateAll);
+            } else {
+                listeners.forEach(listener -> listener.invalidate(invalidation.entity(), invalidation.key()));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error applying invalidation {}: {}", invalidation, e.getMessage());
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    private static Counter received(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("invalidation.received")
+            .description("Invalidations received from other API instances, by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package dws.invalidation;
+
+import dws.datasource.ReadRouting;
+import dws.datasource.ReadYourWrites;
+import dws.entities.Game;
+import dws.events.ChangeEventStream;
+import dws.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the writes of other API instances to this instance's in-process state:
+ * - A game: evicted from the second-level cache together with the cached query results, and
+ *   announced to this instance's event stream subscribers with the catalogue version the writer set.
+ *   Catalogue reads are pinned to the primary for the read-your-writes window, so a lagging replica
+ *   cannot put the old game back into the cache.
+ * - A user: reads of the user are pinned to the primary for the read-your-writes window, and the
+ *   user's balance, read from the primary, is announced to event stream subscribers.
+ * - Everything (on request, or after lost invalidations): the second-level cache is emptied, catalogue
+ *   reads are pinned to the primary as for a game, and subscribers are sent the current catalogue version.
+ */
+@Component
+public class CacheCoherence implements InvalidationListener {
+    private final Cache cache;
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final ChangeEventStream changeEvents;
+
+    public CacheCoherence(
+            EntityManagerFactory entityManagerFactory,
+            UserRepository userRepository,
+            ReadYourWrites readYourWrites,
+            ChangeEventStream changeEvents,
+            InvalidationBus invalidationBus) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.changeEvents = changeEvents;
+        invalidationBus.subscribe(this);
+    }
+
+    @Override
+    public void invalidate(String entity, int key) {
+        switch (entity) {
+            case Invalidation.GAME -> {
+                readYourWrites.catalogWritten();
+                cache.evictEntityData(Game.class, key);
+                cache.evictDefaultQueryRegion();
+                changeEvents.gameChangedElsewhere(key);
+            }
+            case Invalidation.USER -> {
+                readYourWrites.userWritten(key, null);
+                try (ReadRouting.Pin pin = readYourWrites.readUser(key)) {
+                    userRepository.findById(key).ifPresent(user -> {
+                        readYourWrites.userWritten(key, user.getUsername());
+                        changeEvents.balanceChanged(key, user.getAccountBalance());
+                    });
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        readYourWrites.catalogWritten();
+        cache.evictAll();
+        changeEvents.catalogChangedElsewhere();
+    }
+}
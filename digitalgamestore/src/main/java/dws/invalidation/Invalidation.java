@@ -0,0 +1,23 @@
+package dws.invalidation;
+
+/**
+ * A message on the invalidation bus.
+ * Each API instance numbers the messages it sends 1, 2, 3, ... under an origin id that is new on
+ * every start, so a receiver that knows the last version it got from an origin can tell a duplicate
+ * (version not higher) from a loss (version more than one higher).
+ *
+ * @param origin Id of the sending instance
+ * @param version The sender's message number; for heartbeats, the number of the last message sent
+ * @param entity GAME, USER, ALL (every cached entity) or HEARTBEAT
+ * @param key Id of the game or user; 0 for ALL and HEARTBEAT
+ */
+public record Invalidation(String origin, long version, String entity, int key) {
+    public static final String GAME = "Game";
+    public static final String USER = "User";
+    public static final String ALL = "*";
+    public static final String HEARTBEAT = "heartbeat";
+
+    public boolean isHeartbeat() {
+        return HEARTBEAT.equals(entity);
+    }
+}
@@ -0,0 +1,26 @@
+package dws.invalidation;
+
+/**
+ * Broadcasts cache invalidations between API instances.
+ * Implementations: LocalInvalidationBus (instances in one JVM, the default) and
+ * JdbcInvalidationBus (instances sharing a database), chosen with invalidation.bus.
+ */
+public interface InvalidationBus {
+    /**
+     * Tells the other instances that a game or user was written.
+     *
+     * @param entity Invalidation.GAME or Invalidation.USER
+     * @param key Id of the game or user
+     */
+    void publish(String entity, int key);
+
+    /**
+     * Tells the other instances to drop everything they cache.
+     */
+    void publishAll();
+
+    /**
+     * Registers a listener for the invalidations of the other instances.
+     */
+    void subscribe(InvalidationListener listener);
+}
@@ -0,0 +1,20 @@
+package dws.invalidation;
+
+/**
+ * Receives invalidations sent by other API instances.
+ * Called on the bus's delivery thread, one call at a time.
+ */
+public interface InvalidationListener {
+    /**
+     * A game or user was written by another instance.
+     *
+     * @param entity Invalidation.GAME or Invalidation.USER
+     * @param key Id of the game or user
+     */
+    void invalidate(String entity, int key);
+
+    /**
+     * Anything may have changed: another instance asked for it, or messages were lost.
+     */
+    void invalidateAll();
+}
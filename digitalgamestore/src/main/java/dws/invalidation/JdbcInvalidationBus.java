@@ -0,0 +1,119 @@
+package dws.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Invalidation bus through the cache_invalidation table, for API instances sharing a database
+ * (invalidation.bus=jdbc). Each instance appends its messages from a single thread, so they commit
+ * in the order sent, and polls the table for rows added since its last poll every poll-interval.
+ * Rows are deleted after retention.
+ *
+ * Rows from concurrent writers can commit out of id order, so a poll may skip a row that commits
+ * later; the skipped message shows up as a version gap for its origin, at the latest with that
+ * origin's next heartbeat, and every cached entity is dropped. Failed inserts are lost the same way.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "jdbc")
+public class JdbcInvalidationBus extends AbstractInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInvalidationBus.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("invalidation-sender").daemon(true).factory());
+    // Highest row id read; -1 until the first poll starts from the end of the table
+    private long lastId = -1;
+
+    public JdbcInvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${invalidation.jdbc.batch-size:500}") int batchSize,
+            @Value("${invalidation.jdbc.retention:PT1H}") Duration retention) {
+        super(meterRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Override
+    protected void send(Invalidation invalidation) {
+        try {
+            sender.execute(() -> insert(invalidation));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Invalidation dropped during shutdown: {}", invalidation);
+        }
+    }
+
+    /**
+     * Reads the rows added since the last poll and hands them to the listeners.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.jdbc.poll-interval:PT1S}")
+    public void poll() {
+        try {
+            if (lastId < 0) {
+                lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation", Long.class);
+            }
+            List<Row> rows;
+            do {
+                rows = jdbcTemplate.query(
+                    "SELECT id, origin, version, entity, entity_key FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Row(rs.getLong("id"), new Invalidation(rs.getString("origin"),
+                        rs.getLong("version"), rs.getString("entity"), rs.getInt("entity_key"))),
+                    lastId, batchSize);
+                for (Row row : rows) {
+                    lastId = row.id();
+                    receive(row.invalidation());
+                }
+            } while (rows.size() == batchSize);
+        } catch (DataAccessException e) {
+            logger.warn("Could not poll invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes rows older than the retention period; every instance does so, which is harmless.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.jdbc.prune-interval:PT5M}")
+    public void prune() {
+        try {
+            int deleted = jdbcTemplate.update(
+                "DELETE FROM cache_invalidation WHERE created_at < NOW(3) - INTERVAL ? SECOND", retention.toSeconds());
+            logger.debug("Pruned {} invalidations", deleted);
+        } catch (DataAccessException e) {
+            logger.warn("Could not prune invalidations: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdown();
+    }
+
+    private void insert(Invalidation invalidation) {
+        try {
+            jdbcTemplate.update("INSERT INTO cache_invalidation (origin, version, entity, entity_key) VALUES (?, ?, ?, ?)",
+                invalidation.origin(), invalidation.version(), invalidation.entity(), invalidation.key());
+        } catch (DataAccessException e) {
+            logger.warn("Could not publish invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    private record Row(long id, Invalidation invalidation) {
+    }
+}
@@ -0,0 +1,53 @@
+package dws.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Invalidation bus between API instances running in the same JVM, such as application contexts
+ * started side by side in a test; a single instance has nobody to notify. Every bus delivers on
+ * its own thread, so a slow listener never holds up the writer. The default (invalidation.bus=local).
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus extends AbstractInvalidationBus {
+    private static final Set<LocalInvalidationBus> BUSES = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("invalidation-delivery").daemon(true).factory());
+
+    public LocalInvalidationBus(MeterRegistry meterRegistry) {
+        super(meterRegistry);
+        BUSES.add(this);
+    }
+
+    @Override
+    protected void send(Invalidation invalidation) {
+        BUSES.forEach(bus -> bus.deliver(invalidation));
+    }
+
+    @PreDestroy
+    public void stop() {
+        BUSES.remove(this);
+        delivery.shutdownNow();
+    }
+
+    private void deliver(Invalidation invalidation) {
+        if (origin().equals(invalidation.origin())) {
+            return;
+        }
+        try {
+            delivery.execute(() -> receive(invalidation));
+        } catch (RejectedExecutionException e) {
+            // Stopped; the receiver is going away with its caches
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package dws.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback's AsyncAppender, counting the events it throws away.
+ * Once the queue's remaining capacity falls below discardingThreshold, INFO and lower events are
+ * discarded instead of queued; these are counted for the logging.async.discarded metric. With
+ * neverBlock, a full queue drops any event instead of blocking the request thread. Logback's own
+ * offer fails silently, so an event that finds the queue full is dropped here and counted for
+ * logging.async.dropped. The check takes no lock, so the count is a close lower bound: a logger that
+ * sees a free slot can still lose it to another before its offer.
+ */
+public class DiscardCountingAsyncAppender extends AsyncAppender {
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            // Threshold discards are counted by isDiscardable
+            if (!(isQueueBelowDiscardingThreshold() && isDiscardable(event))) {
+                dropped.increment();
+            }
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
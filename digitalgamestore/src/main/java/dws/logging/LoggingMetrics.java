@@ -0,0 +1,51 @@
+package dws.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes what the logging pipeline of logback-spring.xml throws away, so sampling and
+ * discards are visible next to the request metrics:
+ * logging.sampled.dropped counts events denied by RateSamplingTurboFilter, and for each
+ * asynchronous appender logging.async.discarded counts events discarded by the queue's threshold,
+ * logging.async.dropped events dropped because it was full, and logging.async.queue.remaining
+ * tracks its free capacity.
+ */
+@Component
+public class LoggingMetrics {
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logging.sampled.dropped", RateSamplingTurboFilter.class,
+                ignored -> RateSamplingTurboFilter.dropped())
+            .description("Log events denied by per-logger rate sampling")
+            .register(meterRegistry);
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+            context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof DiscardCountingAsyncAppender async) {
+                FunctionCounter.builder("logging.async.discarded", async, DiscardCountingAsyncAppender::getDiscarded)
+                    .description("Log events discarded because the asynchronous queue was nearly full")
+                    .tag("appender", async.getName())
+                    .register(meterRegistry);
+                FunctionCounter.builder("logging.async.dropped", async, DiscardCountingAsyncAppender::getDropped)
+                    .description("Log events dropped because the asynchronous queue was full")
+                    .tag("appender", async.getName())
+                    .register(meterRegistry);
+                Gauge.builder("logging.async.queue.remaining", async, DiscardCountingAsyncAppender::getRemainingCapacity)
+                    .description("Free slots in the asynchronous logging queue")
+                    .tag("appender", async.getName())
+                    .register(meterRegistry);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dws.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets through at most eventsPerSecond INFO (and lower) events per second from each logger under
+ * the configured prefixes, and denies the rest before a logging event is even created.
+ * WARN and ERROR always pass, as do loggers outside the prefixes.
+ * Configured in logback-spring.xml; denied events are counted for the logging.sampled.dropped metric.
+ * An explicit isInfoEnabled() guard in a sampled logger uses up a permit of its own.
+ *
+ * Each logger's window is a single AtomicLong packing the current second (high bits) and the
+ * number of events let through in it (low 20 bits), so a decision is one map lookup plus one CAS.
+ */
+public class RateSamplingTurboFilter extends TurboFilter {
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final ConcurrentMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private List<String> prefixes = List.of();
+    private int eventsPerSecond = 50;
+
+    /**
+     * @param loggers Comma-separated logger name prefixes to sample, e.g. dws.controllers
+     */
+    public void setLoggers(String loggers) {
+        this.prefixes = List.of(loggers.trim().split("\\s*,\\s*"));
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = (int) Math.min(eventsPerSecond, COUNT_MASK);
+    }
+
+    /**
+     * @return Events denied by every sampling filter since startup
+     */
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // The fluent API (logger.atInfo()...log()) consults turbo filters only through isInfoEnabled(),
+        // so that check counts as the event; a denied check makes atInfo() return a no-op builder
+        if (!isStarted() || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        AtomicLong window = windows.computeIfAbsent(logger.getName(), name -> new AtomicLong());
+        long second = System.currentTimeMillis() / 1000;
+        while (true) {
+            long current = window.get();
+            long next = current >>> COUNT_BITS == second ? current + 1 : second << COUNT_BITS | 1;
+            if ((next & COUNT_MASK) > eventsPerSecond) {
+                DROPPED.increment();
+                return FilterReply.DENY;
+            }
+            if (window.compareAndSet(current, next)) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+
+    private boolean sampled(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,20 +1,34 @@
 package dws.repositories;
 
 import dws.entities.Game;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository interface for Game entity operations.
  * Provides CRUD operations and custom queries for Game management.
  * Extends JpaRepository to inherit basic database operations.
+ * Query methods run in read-only transactions, which are served by the read replica when one is configured.
+ * The genre and title finders are marked cacheable: their results are kept in Hibernate's query cache
+ * and dropped whenever the Game table is written through JPA.
  */
+@Transactional(readOnly = true)
 public interface GameRepository extends JpaRepository<Game, Integer> {
     /**
      * Finds games by partial genre match.
      * @param genre The genre string to search for
      * @return List of games matching the genre
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Game> findByGenreContaining(String genre);
 
     /**
@@ -22,5 +36,50 @@ public interface GameRepository extends JpaRepository<Game, Integer> {
      * @param title The title string to search for
      * @return List of games matching the title
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Game> findByTitleContainingIgnoreCase(String title);
+
+    /**
+     * Finds one page of games whose title and genre contain the given strings.
+     * Empty strings match every game. The description column is not selected.
+     * @param title Case-insensitive title fragment to search for
+     * @param genre Genre to filter by
+     * @param pageable Page, size and sort order
+     * @return One page of matching game summaries, with the total match count
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<GameSummary> findByTitleContainingIgnoreCaseAndGenreContaining(
+        String title, String genre, Pageable pageable);
+
+    /**
+     * Finds the distinct values of the genre column.
+     * A value may hold several comma-separated genres.
+     * @return Distinct genre column values
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select distinct g.genre from Game g")
+    List<String> findDistinctGenres();
+
+    /**
+     * Finds the titles of several games in a single IN query.
+     * Only the id and title columns are selected.
+     * @param gameIds The IDs of the games to look up
+     * @return Id/title pairs for the games that exist
+     */
+    List<GameTitle> findByGameIdIn(Collection<Integer> gameIds);
+
+    /**
+     * Projection of the columns shown in catalogue listings, leaving out the description.
+     */
+    record GameSummary(int gameId, String title, String genre, String developer,
+                       LocalDate releaseDate, double price, double leasePrice) {
+    }
+
+    /**
+     * Projection exposing only a game's id and title.
+     */
+    interface GameTitle {
+        int getGameId();
+        String getTitle();
+    }
 }
\ No newline at end of file
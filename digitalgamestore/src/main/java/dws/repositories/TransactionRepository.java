@@ -1,14 +1,20 @@
 package dws.repositories;
 
 import dws.entities.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Transaction entity operations.
  * Provides CRUD operations and custom queries for Transaction management.
  * Extends JpaRepository to inherit basic database operations.
+ * Query methods run in read-only transactions, which are served by the read replica when one is configured.
  */
+@Transactional(readOnly = true)
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
     /**
      * Finds all transactions for a specific user.
@@ -16,6 +22,22 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
      * @return List of transactions belonging to the user
      */
     List<Transaction> findByUserId(int userId);
+
+    /**
+     * Finds one page of transactions for a specific user.
+     * @param userId The ID of the user whose transactions to retrieve
+     * @param pageable The page to return, including its sort order
+     * @return Page of transactions belonging to the user
+     */
+    Page<Transaction> findByUserId(int userId, Pageable pageable);
+
+    /**
+     * Finds the transaction recorded for an idempotency key.
+     * Called within the transaction creating one, so it reads the primary, not the replica.
+     * @param idempotencyKey The key the client sent with the creation request
+     * @return Optional containing the transaction if one was recorded with the key
+     */
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
 }
 
 /* What a Repository Does in Spring Boot:
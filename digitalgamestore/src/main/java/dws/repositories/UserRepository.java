@@ -2,13 +2,16 @@ package dws.repositories;
 
 import dws.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 /**
  * Repository interface for User entity operations.
  * Provides CRUD operations and custom queries for User management.
  * Extends JpaRepository to inherit basic database operations.
+ * Query methods run in read-only transactions, which are served by the read replica when one is configured.
  */
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Integer> {
     /**
      * Finds a user by their username.
@@ -0,0 +1,145 @@
+package dws.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process rate limiter guarding the login endpoint.
+ * Keeps one token bucket per username and one per client address so that
+ * credential-stuffing bursts are rejected before they reach the database.
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time"
+ * (GCRA), so an acquire is one map lookup plus one CAS and never takes a lock.
+ * Buckets that have fully refilled carry no information and are evicted periodically.
+ */
+@Component
+public class LoginRateLimiter {
+    private final ConcurrentMap<String, AtomicLong> usernameBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> addressBuckets = new ConcurrentHashMap<>();
+    private final Bucket usernameLimit;
+    private final Bucket addressLimit;
+    private final Counter usernameRejections;
+    private final Counter addressRejections;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.login.username.capacity:5}") int usernameCapacity,
+            @Value("${security.login.username.refill-period:PT1M}") Duration usernameRefillPeriod,
+            @Value("${security.login.address.capacity:30}") int addressCapacity,
+            @Value("${security.login.address.refill-period:PT1M}") Duration addressRefillPeriod) {
+        this(meterRegistry, usernameCapacity, usernameRefillPeriod, addressCapacity, addressRefillPeriod,
+            System::nanoTime);
+    }
+
+    /**
+     * @param clock Source of System.nanoTime()-like timestamps; tests pass a manual clock
+     */
+    LoginRateLimiter(MeterRegistry meterRegistry, int usernameCapacity, Duration usernameRefillPeriod,
+                     int addressCapacity, Duration addressRefillPeriod, LongSupplier clock) {
+        this.clock = clock;
+        this.usernameLimit = new Bucket(usernameCapacity, usernameRefillPeriod);
+        this.addressLimit = new Bucket(addressCapacity, addressRefillPeriod);
+        this.usernameRejections = Counter.builder("dws.login.rejections")
+            .description("Login attempts rejected by the rate limiter")
+            .tag("key", "username")
+            .register(meterRegistry);
+        this.addressRejections = Counter.builder("dws.login.rejections")
+            .description("Login attempts rejected by the rate limiter")
+            .tag("key", "address")
+            .register(meterRegistry);
+        Gauge.builder("dws.login.buckets", usernameBuckets, ConcurrentMap::size)
+            .description("Token buckets currently tracked by the rate limiter")
+            .tag("key", "username")
+            .register(meterRegistry);
+        Gauge.builder("dws.login.buckets", addressBuckets, ConcurrentMap::size)
+            .description("Token buckets currently tracked by the rate limiter")
+            .tag("key", "address")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the client address bucket and then from the username bucket.
+     * The address is checked first so a spray of random usernames from one client
+     * cannot grow the username map faster than the address limit allows.
+     *
+     * @param username The username the client is trying to log in as
+     * @param address The client's network address
+     * @return true if the attempt may proceed, false if it must be rejected
+     */
+    public boolean tryAcquire(String username, String address) {
+        long now = clock.getAsLong();
+        if (!addressLimit.tryAcquire(bucketFor(addressBuckets, address, now), now)) {
+            addressRejections.increment();
+            return false;
+        }
+        String key = username == null ? "" : username.toLowerCase(Locale.ROOT);
+        if (!usernameLimit.tryAcquire(bucketFor(usernameBuckets, key, now), now)) {
+            usernameRejections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops buckets that have refilled completely, since a fresh bucket behaves identically.
+     * A thread that fetched a bucket just before it was removed updates a detached
+     * instance, which at worst forgives a single attempt.
+     */
+    @Scheduled(fixedDelayString = "${security.login.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        usernameBuckets.values().removeIf(tat -> tat.get() - now <= 0);
+        addressBuckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+
+    private static AtomicLong bucketFor(ConcurrentMap<String, AtomicLong> buckets, String key, long now) {
+        String safeKey = key == null ? "" : key;
+        AtomicLong bucket = buckets.get(safeKey);
+        return bucket != null ? bucket : buckets.computeIfAbsent(safeKey, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Bucket parameters shared by every key of one kind.
+     * The stored value is the time at which the bucket will be full again.
+     */
+    private static final class Bucket {
+        private final long emissionInterval;
+        private final long burstWindow;
+
+        Bucket(int capacity, Duration refillPeriod) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Rate limit capacity must be at least 1");
+            }
+            this.emissionInterval = refillPeriod.toNanos() / capacity;
+            this.burstWindow = emissionInterval * capacity;
+        }
+
+        boolean tryAcquire(AtomicLong tat, long now) {
+            while (true) {
+                long current = tat.get();
+                long base = current - now < 0 ? now : current;
+                long next = base + emissionInterval;
+                if (next - now > burstWindow) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
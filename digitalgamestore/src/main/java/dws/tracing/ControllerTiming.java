@@ -0,0 +1,48 @@
+package dws.tracing;
+
+import dws.shared.tracing.Trace;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Moves the current trace through its phases: from filters (authentication above all) to controller
+ * when the handler is invoked, and from controller to ser when its return value is about to be written
+ * as the response body. Registered as an interceptor in WebMvcConfig.
+ */
+@ControllerAdvice
+public class ControllerTiming implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        enterPhase("controller");
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        enterPhase("ser");
+        return body;
+    }
+
+    private static void enterPhase(String phase) {
+        Trace trace = Tracing.current();
+        if (trace != null) {
+            trace.enterPhase(phase);
+        }
+    }
+}
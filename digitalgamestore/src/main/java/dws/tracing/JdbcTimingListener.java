@@ -0,0 +1,46 @@
+package dws.tracing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener recording JDBC work as spans of the current trace: statement and batch
+ * execution as db (time spent in MariaDB and on the wire, the driver reading whole result sets by default)
+ * and connection acquisition as pool. The difference between a repository call and its db spans is
+ * Hibernate's own time. Attached to every session through hibernate.session.events.auto; Hibernate
+ * creates one instance per session, so the start times need no synchronization.
+ */
+public class JdbcTimingListener extends BaseSessionEventListener {
+    private long acquisitionStart;
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        Tracing.record("pool", acquisitionStart, null);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        Tracing.record("db", statementStart, null);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        Tracing.record("db", batchStart, "batch");
+    }
+}
@@ -0,0 +1,35 @@
+package dws.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every repository method call, derived queries included, as a repo span of the current trace,
+ * e.g. GameRepository.findById. The span is taken by the outermost advice of the repository proxy, so it
+ * includes beginning and committing the call's own transaction, which Spring Data's invocation listeners
+ * (behind the spring.data.repository.invocations metric) leave out.
+ */
+@Component
+public class RepositoryTracing implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactory) {
+            repositoryFactory.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                (proxyFactory, repository) -> {
+                    String name = repository.getRepositoryInterface().getSimpleName() + ".";
+                    proxyFactory.addAdvice(0, (MethodInterceptor) invocation -> {
+                        long start = System.nanoTime();
+                        try {
+                            return invocation.proceed();
+                        } finally {
+                            Tracing.record("repo", start, name + invocation.getMethod().getName());
+                        }
+                    });
+                }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,43 @@
+package dws.tracing;
+
+import dws.shared.tracing.Trace;
+
+/**
+ * Holds the trace of the request the current thread is handling, so repository and JDBC timings
+ * can be attributed to it without passing it around. Set by TracingFilter for the duration of the request.
+ */
+public final class Tracing {
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /**
+     * @return Trace of the request handled by this thread, or null outside a traced request
+     */
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    static void set(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Records a span ending now in the current trace, if there is one.
+     *
+     * @param name Server-Timing metric the span adds to
+     * @param startNanos System.nanoTime() when the span started
+     * @param detail What the span was spent on, or null
+     */
+    public static void record(String name, long startNanos, String detail) {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.span(name, startNanos, detail);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dws.tracing;
+
+import dws.logging.RequestLogFilter;
+import dws.shared.tracing.ServerTimingResponse;
+import dws.shared.tracing.Trace;
+import dws.shared.tracing.TraceStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Traces every API request under its request ID (see RequestLogFilter, which runs first):
+ * the filter chain (authentication), the controller, repository calls, JDBC statements and connection
+ * acquisition, and serialization of the response body. The breakdown is returned in a Server-Timing
+ * header, timed when the response starts to be written, and the completed trace is kept in TraceStore.
+ * Actuator requests and the event stream are not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final TraceStore traceStore;
+
+    public TracingFilter(TraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/actuator") || uri.startsWith("/api/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Trace trace = new Trace(MDC.get(RequestLogFilter.REQUEST_ID),
+            request.getMethod() + " " + request.getRequestURI(), "filters");
+        ServerTimingResponse tracedResponse = new ServerTimingResponse(response,
+            () -> response.setHeader(SERVER_TIMING, trace.serverTiming()));
+        Tracing.set(trace);
+        try {
+            chain.doFilter(request, tracedResponse);
+        } finally {
+            Tracing.clear();
+            // Responses without a body are not committed yet
+            tracedResponse.beforeCommit();
+            trace.finish(response.getStatus());
+            traceStore.add(trace);
+        }
+    }
+}
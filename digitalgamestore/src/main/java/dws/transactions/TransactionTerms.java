@@ -0,0 +1,42 @@
+package dws.transactions;
+
+import dws.entities.Game;
+import dws.entities.Transaction;
+
+import java.time.LocalDate;
+
+/**
+ * Terms of a purchase or lease: what it costs, when it was made and when a lease expires.
+ * Dates are ISO yyyy-MM-dd strings, as stored in the transaction table; LocalDate formats
+ * them directly, without a SimpleDateFormat and Calendar per transaction.
+ */
+public final class TransactionTerms {
+    public static final String PURCHASE = "Purchase";
+    public static final String LEASE = "Lease";
+    public static final int LEASE_DAYS = 30;
+
+    private TransactionTerms() {
+    }
+
+    /**
+     * @param game The game being bought or leased
+     * @param transactionType "Purchase" for the purchase price; anything else is charged the lease price
+     * @return The amount to charge
+     */
+    public static double cost(Game game, String transactionType) {
+        return PURCHASE.equals(transactionType) ? game.getPrice() : game.getLeasePrice();
+    }
+
+    /**
+     * Dates a transaction made on the given day; leases expire LEASE_DAYS later.
+     *
+     * @param transaction The transaction to update
+     * @param today The day the transaction is made
+     */
+    public static void applyDates(Transaction transaction, LocalDate today) {
+        transaction.setTransactionDate(today.toString());
+        if (LEASE.equals(transaction.getTransactionType())) {
+            transaction.setExpiryDate(today.plusDays(LEASE_DAYS).toString());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+-- Tables of the game store, as mapped by the entities in dws.entities.
+-- IF NOT EXISTS leaves the tables of databases created before migrations were introduced
+-- (by ddl-auto=update or by importing DigitalGameStore.sql) untouched; V2 aligns those.
+
+CREATE TABLE IF NOT EXISTS `game` (
+  `game_id` int(11) NOT NULL AUTO_INCREMENT,
+  `description` text NOT NULL,
+  `developer` varchar(255) NOT NULL,
+  `genre` varchar(255) NOT NULL,
+  `lease_price` double NOT NULL,
+  `price` double NOT NULL,
+  `release_date` date NOT NULL,
+  `title` varchar(255) NOT NULL,
+  PRIMARY KEY (`game_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `user` (
+  `user_id` int(11) NOT NULL AUTO_INCREMENT,
+  `account_balance` double NOT NULL,
+  `email` varchar(255) NOT NULL,
+  `password` varchar(255) NOT NULL,
+  `username` varchar(255) NOT NULL,
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS `transaction` (
+  `transaction_id` int(11) NOT NULL AUTO_INCREMENT,
+  `amount` double NOT NULL,
+  `expiry_date` varchar(255) DEFAULT NULL,
+  `game_id` int(11) NOT NULL,
+  `transaction_date` varchar(255) NOT NULL,
+  `transaction_type` varchar(255) NOT NULL,
+  `user_id` int(11) NOT NULL,
+  PRIMARY KEY (`transaction_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
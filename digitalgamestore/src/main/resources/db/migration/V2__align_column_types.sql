@@ -0,0 +1,20 @@
+-- Aligns databases imported from DigitalGameStore.sql with the entity mappings, so that
+-- Hibernate schema validation passes. The dump declares money as decimal, game genres as a SET,
+-- the transaction type as an ENUM and transaction dates as DATE; the entities map them as double
+-- and strings. Existing values convert without loss: SET values read back as the same
+-- comma-separated string, and dates as yyyy-MM-dd, the format the API writes.
+-- On tables created by V1 or by ddl-auto=update these statements change nothing.
+
+ALTER TABLE `game`
+  MODIFY `genre` varchar(255) NOT NULL,
+  MODIFY `lease_price` double NOT NULL,
+  MODIFY `price` double NOT NULL;
+
+ALTER TABLE `user`
+  MODIFY `account_balance` double NOT NULL;
+
+ALTER TABLE `transaction`
+  MODIFY `amount` double NOT NULL,
+  MODIFY `expiry_date` varchar(255) DEFAULT NULL,
+  MODIFY `transaction_date` varchar(255) NOT NULL,
+  MODIFY `transaction_type` varchar(255) NOT NULL;
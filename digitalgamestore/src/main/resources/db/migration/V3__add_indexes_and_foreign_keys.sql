@@ -0,0 +1,41 @@
+-- Secondary indexes for the lookups the repositories run, and foreign keys for transactions.
+--
+-- user.username:  findByUsername / existsByUsername (login, registration); unique
+-- user.email:     existsByEmail (registration)
+-- transaction:    findByUserId, paged newest first by transaction_id (profile page)
+-- transaction:    game_id, for the foreign key and for deleting games
+-- game.title:     catalogue pages sorted by title
+--
+-- Databases created by ddl-auto=update carry Hibernate's unnamed unique key on username, and
+-- databases imported from DigitalGameStore.sql carry foreign keys without ON DELETE rules;
+-- both are replaced by the named ones below.
+
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_user_username` ON `user` (`username`);
+DROP INDEX IF EXISTS `UKsb8bbouer5wak8vyiiy4pf2bx` ON `user`;
+CREATE INDEX IF NOT EXISTS `ix_user_email` ON `user` (`email`);
+
+CREATE INDEX IF NOT EXISTS `ix_transaction_user` ON `transaction` (`user_id`, `transaction_id`);
+CREATE INDEX IF NOT EXISTS `ix_transaction_game` ON `transaction` (`game_id`);
+
+CREATE INDEX IF NOT EXISTS `ix_game_title` ON `game` (`title`);
+
+ALTER TABLE `transaction`
+  DROP FOREIGN KEY IF EXISTS `FKsg7jp0aj6qipr50856wf6vbw1`,
+  DROP FOREIGN KEY IF EXISTS `FK9psb2j1156awdh8y4v39quqr6`;
+DROP INDEX IF EXISTS `FKsg7jp0aj6qipr50856wf6vbw1` ON `transaction`;
+DROP INDEX IF EXISTS `FK9psb2j1156awdh8y4v39quqr6` ON `transaction`;
+
+-- Transactions that reference deleted users or games were left behind before these keys existed.
+-- They are purchase history, so they are moved to transaction_orphan, not deleted; the table stays
+-- empty when there were none.
+CREATE TABLE IF NOT EXISTS `transaction_orphan` LIKE `transaction`;
+INSERT INTO `transaction_orphan`
+  SELECT * FROM `transaction`
+  WHERE `user_id` NOT IN (SELECT `user_id` FROM `user`) OR `game_id` NOT IN (SELECT `game_id` FROM `game`);
+DELETE FROM `transaction`
+  WHERE `transaction_id` IN (SELECT `transaction_id` FROM `transaction_orphan`);
+
+-- Deleting a user account deletes its transactions; a game that was sold cannot be deleted
+ALTER TABLE `transaction`
+  ADD CONSTRAINT `fk_transaction_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `fk_transaction_game` FOREIGN KEY (`game_id`) REFERENCES `game` (`game_id`);
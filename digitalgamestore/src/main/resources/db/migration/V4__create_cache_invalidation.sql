@@ -0,0 +1,14 @@
+-- Messages of the JDBC invalidation bus (invalidation.bus=jdbc, see dws.invalidation).
+-- Each API instance appends the games and users it wrote and polls for rows added by the others;
+-- rows older than invalidation.jdbc.retention are deleted by the instances.
+
+CREATE TABLE IF NOT EXISTS `cache_invalidation` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `origin` varchar(36) NOT NULL,
+  `version` bigint(20) NOT NULL,
+  `entity` varchar(32) NOT NULL,
+  `entity_key` int(11) NOT NULL,
+  `created_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`id`),
+  KEY `ix_cache_invalidation_created` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
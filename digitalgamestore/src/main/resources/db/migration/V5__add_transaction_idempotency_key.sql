@@ -0,0 +1,9 @@
+-- Idempotency keys of recorded transactions (POST /api/transactions with an Idempotency-Key header).
+-- A client that did not get an answer in time can send the same request again with the same key and
+-- is given the transaction already recorded instead of being charged twice. Transactions created
+-- without a key keep NULL, which the unique index does not compare.
+
+ALTER TABLE `transaction`
+  ADD COLUMN IF NOT EXISTS `idempotency_key` varchar(64) DEFAULT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_transaction_idempotency_key` ON `transaction` (`idempotency_key`);
@@ -0,0 +1,11 @@
+-- Catalogue version shared by the API instances (see dws.catalog.CatalogVersion): a single row,
+-- bumped by every catalogue write. Seeded from the current time in milliseconds, like the in-memory
+-- version it replaces, so it is above any version a client cached from an earlier server.
+
+CREATE TABLE IF NOT EXISTS `catalog_version` (
+  `id` tinyint(4) NOT NULL,
+  `version` bigint(20) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO `catalog_version` (`id`, `version`) VALUES (1, ROUND(UNIX_TIMESTAMP(NOW(3)) * 1000));
@@ -0,0 +1,145 @@
+package dws.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, replica, meterRegistry);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToReplica() throws SQLException {
+        assertThat(connection(false)).isSameAs(primaryConnection);
+        assertThat(connection(true)).isSameAs(replicaConnection);
+        assertThat(routed("primary")).isEqualTo(1);
+        assertThat(routed("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void pinnedThreadReadsFromPrimaryUntilOutermostPinCloses() throws SQLException {
+        try (ReadRouting.Pin outer = ReadRouting.pinToPrimary()) {
+            try (ReadRouting.Pin inner = ReadRouting.pinToPrimary()) {
+                assertThat(connection(true)).isSameAs(primaryConnection);
+            }
+            assertThat(connection(true)).as("outer pin still held").isSameAs(primaryConnection);
+        }
+        assertThat(connection(true)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void pinsReadsOfRecentlyWrittenUserOnly() throws SQLException {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+        readYourWrites.userWritten(1, "Alice");
+
+        try (ReadRouting.Pin pin = readYourWrites.readUser(1)) {
+            assertThat(connection(true)).isSameAs(primaryConnection);
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readUser("alice")) {
+            assertThat(connection(true)).as("usernames are case-insensitive").isSameAs(primaryConnection);
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readUser(2)) {
+            assertThat(connection(true)).isSameAs(replicaConnection);
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readUser((String) null)) {
+            assertThat(connection(true)).isSameAs(replicaConnection);
+        }
+    }
+
+    @Test
+    void pinsCatalogueReadsAfterGameWrite() throws SQLException {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            assertThat(connection(true)).isSameAs(replicaConnection);
+        }
+
+        readYourWrites.catalogWritten();
+
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            assertThat(connection(true)).isSameAs(primaryConnection);
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readUser(1)) {
+            assertThat(connection(true)).as("user reads are not affected").isSameAs(replicaConnection);
+        }
+    }
+
+    @Test
+    void readsFromReplicaOnceWindowHasPassed() throws SQLException {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ZERO);
+        readYourWrites.userWritten(1, "alice");
+        readYourWrites.catalogWritten();
+
+        try (ReadRouting.Pin pin = readYourWrites.readUser(1)) {
+            assertThat(connection(true)).isSameAs(replicaConnection);
+        }
+        try (ReadRouting.Pin pin = readYourWrites.readCatalog()) {
+            assertThat(connection(true)).isSameAs(replicaConnection);
+        }
+    }
+
+    @Test
+    void lazyProxyRoutesByFlagOfTransactionItSitsIn() throws SQLException {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        // Given up front, or the proxy would fetch a connection to find them out
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        dataSource.setTargetDataSource(routing);
+        dataSource.afterPropertiesSet();
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    private Connection connection(boolean readOnly) throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        return routing.getConnection();
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("dws.datasource.routing").tag("target", target).counter().count();
+    }
+}
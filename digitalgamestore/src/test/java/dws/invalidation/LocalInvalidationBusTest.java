@@ -0,0 +1,184 @@
+package dws.invalidation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalInvalidationBusTest {
+    private final SimpleMeterRegistry senderMeters = new SimpleMeterRegistry();
+    private final SimpleMeterRegistry receiverMeters = new SimpleMeterRegistry();
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    // Decides what the sender's transport does with each message: deliver it once, twice or not at all
+    private Predicate<Invalidation> drop = invalidation -> false;
+    private Predicate<Invalidation> duplicate = invalidation -> false;
+    // Runs in the sender's send, before the message is handed over
+    private Consumer<Invalidation> beforeSend = invalidation -> {
+    };
+    private LocalInvalidationBus sender;
+    private LocalInvalidationBus receiver;
+
+    @BeforeEach
+    void setUp() {
+        sender = new LocalInvalidationBus(senderMeters) {
+            @Override
+            protected void send(Invalidation invalidation) {
+                beforeSend.accept(invalidation);
+                if (drop.test(invalidation)) {
+                    return;
+                }
+                super.send(invalidation);
+                if (duplicate.test(invalidation)) {
+                    super.send(invalidation);
+                }
+            }
+        };
+        receiver = new LocalInvalidationBus(receiverMeters);
+        sender.subscribe(new Recorder(sent));
+        receiver.subscribe(new Recorder(received));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    void appliesMessagesOfOtherInstancesOnly() throws InterruptedException {
+        sender.publish(Invalidation.GAME, 1);
+        sender.publish(Invalidation.USER, 2);
+        sender.publishAll();
+
+        assertThat(next(3)).containsExactly("Game:1", "User:2", "all");
+        assertThat(sent).as("own messages are not applied").isEmpty();
+        assertThat(count("applied")).isEqualTo(3);
+        assertThat(count("gap")).isZero();
+    }
+
+    @Test
+    void droppedMessageDropsEverything() throws InterruptedException {
+        drop = invalidation -> invalidation.version() == 2;
+
+        sender.publish(Invalidation.GAME, 1);
+        sender.publish(Invalidation.GAME, 2);
+        sender.publish(Invalidation.GAME, 3);
+
+        assertThat(next(3)).containsExactly("Game:1", "all", "Game:3");
+        assertThat(count("gap")).isEqualTo(1);
+        assertThat(count("applied")).isEqualTo(2);
+    }
+
+    @Test
+    void heartbeatRevealsLostLastMessage() throws InterruptedException {
+        drop = invalidation -> invalidation.version() == 2 && !invalidation.isHeartbeat();
+
+        sender.publish(Invalidation.GAME, 1);
+        sender.publish(Invalidation.GAME, 2);
+        sender.heartbeat();
+
+        assertThat(next(2)).containsExactly("Game:1", "all");
+        assertThat(count("gap")).isEqualTo(1);
+
+        sender.heartbeat();
+        sender.publish(Invalidation.GAME, 3);
+
+        assertThat(next(1)).as("no second gap once caught up").containsExactly("Game:3");
+        assertThat(count("gap")).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateMessageIsDropped() throws InterruptedException {
+        duplicate = invalidation -> invalidation.version() == 1;
+
+        sender.publish(Invalidation.GAME, 1);
+        sender.publish(Invalidation.GAME, 2);
+
+        assertThat(next(2)).containsExactly("Game:1", "Game:2");
+        assertThat(count("duplicate")).isEqualTo(1);
+        assertThat(count("gap")).isZero();
+        assertThat(count("applied")).isEqualTo(2);
+    }
+
+    @Test
+    void heartbeatDuringPublishWaitsForTheMessage() throws InterruptedException {
+        sender.publish(Invalidation.GAME, 1);
+        assertThat(next(1)).containsExactly("Game:1");
+        List<Thread> heartbeats = new ArrayList<>();
+        beforeSend = invalidation -> {
+            if (invalidation.version() == 2 && !invalidation.isHeartbeat()) {
+                // A scheduled heartbeat fires while version 2 is on its way out
+                Thread heartbeat = Thread.ofPlatform().start(sender::heartbeat);
+                heartbeats.add(heartbeat);
+                awaitBlockedOrDone(heartbeat);
+            }
+        };
+
+        sender.publish(Invalidation.GAME, 2);
+        heartbeats.getFirst().join();
+        beforeSend = invalidation -> {
+        };
+        sender.publish(Invalidation.GAME, 3);
+
+        assertThat(next(2)).containsExactly("Game:2", "Game:3");
+        assertThat(count("gap")).isZero();
+        assertThat(count("duplicate")).isZero();
+    }
+
+    @Test
+    void firstMessageFromAnOriginIsTakenAsIs() throws InterruptedException {
+        receiver.receive(new Invalidation("restarted", 41, Invalidation.GAME, 7));
+        receiver.receive(new Invalidation("restarted", 42, Invalidation.GAME, 8));
+
+        assertThat(next(2)).containsExactly("Game:7", "Game:8");
+        assertThat(count("gap")).isZero();
+    }
+
+    /**
+     * Waits for the receiver's next listener calls; delivery happens on the receiver's own thread.
+     */
+    private List<String> next(int calls) throws InterruptedException {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            String call = received.poll(5, TimeUnit.SECONDS);
+            assertThat(call).as("listener call %d of %d", i + 1, calls).isNotNull();
+            result.add(call);
+        }
+        return result;
+    }
+
+    private static void awaitBlockedOrDone(Thread thread) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TERMINATED
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private double count(String result) {
+        return receiverMeters.get("invalidation.received").tag("result", result).counter().count();
+    }
+
+    private record Recorder(BlockingQueue<String> calls) implements InvalidationListener {
+        @Override
+        public void invalidate(String entity, int key) {
+            calls.add(entity + ":" + key);
+        }
+
+        @Override
+        public void invalidateAll() {
+            calls.add("all");
+        }
+    }
+}
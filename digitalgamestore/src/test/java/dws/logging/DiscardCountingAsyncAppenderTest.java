@@ -0,0 +1,143 @@
+package dws.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscardCountingAsyncAppenderTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Writer writer = new Writer();
+    private final DiscardCountingAsyncAppender async = new DiscardCountingAsyncAppender();
+    private final Logger logger = context.getLogger("dws.test");
+
+    @BeforeEach
+    void setUp() {
+        // Events copy the MDC when queued; a context configured by Logback's initializer has an adapter
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        writer.setContext(context);
+        writer.start();
+        async.setContext(context);
+        async.setQueueSize(4);
+        async.setNeverBlock(true);
+        async.addAppender(writer);
+        logger.setAdditive(false);
+        logger.addAppender(async);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.release.countDown();
+        context.stop();
+    }
+
+    // A single logger sees every change of the queue, so its drops are all counted
+    @Test
+    void countsEventsDroppedByFullQueue() throws InterruptedException {
+        async.setDiscardingThreshold(0);
+        async.start();
+        stallWriter();
+
+        for (int i = 0; i < 10; i++) {
+            logger.warn("event {}", i);
+        }
+
+        assertThat(async.getDropped()).isEqualTo(6);
+        assertThat(async.getDiscarded()).isZero();
+        assertThat(written()).hasSize(5);
+    }
+
+    @Test
+    void countsThresholdDiscardsAndDropsSeparately() throws InterruptedException {
+        async.setDiscardingThreshold(2);
+        async.start();
+        stallWriter();
+
+        // Queued while at least two slots are free, discarded after
+        for (int i = 0; i < 4; i++) {
+            logger.info("info {}", i);
+        }
+        // Takes the last slot, then finds the queue full
+        logger.warn("warn 1");
+        logger.warn("warn 2");
+
+        assertThat(async.getDiscarded()).isEqualTo(1);
+        assertThat(async.getDropped()).isEqualTo(1);
+        assertThat(written()).containsExactly("first", "info 0", "info 1", "info 2", "warn 1");
+    }
+
+    @Test
+    void dropCountIsCloseLowerBoundUnderConcurrentLoggers() throws InterruptedException {
+        async.setDiscardingThreshold(0);
+        async.start();
+        stallWriter();
+
+        int threads = 8;
+        int eventsPerThread = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> loggers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            loggers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < eventsPerThread; i++) {
+                    logger.warn("event {}", i);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : loggers) {
+            thread.join();
+        }
+
+        long lost = threads * eventsPerThread + 1 - written().size();
+        // Once the stalled queue is full every check sees it, so each logger loses at most one event uncounted
+        assertThat(async.getDropped()).isBetween(lost - threads, lost);
+    }
+
+    /**
+     * Leaves the writer thread blocked on its first event, so that the queue only fills.
+     */
+    private void stallWriter() throws InterruptedException {
+        logger.warn("first");
+        assertThat(writer.busy.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private List<String> written() {
+        writer.release.countDown();
+        async.stop();
+        return writer.messages;
+    }
+
+    private static class Writer extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch busy = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getFormattedMessage());
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dws.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now = 1_000 * SECOND;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 5 attempts per username and 30 per address per minute, as in application.properties
+        limiter = new LoginRateLimiter(meterRegistry, 5, Duration.ofMinutes(1), 30, Duration.ofMinutes(1),
+            () -> now);
+    }
+
+    @Test
+    void rejectsUsernameOnceBurstIsSpent() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+        assertThat(limiter.tryAcquire("ALICE", "10.0.0.2")).as("usernames are case-insensitive").isFalse();
+        assertThat(limiter.tryAcquire("bob", "10.0.0.1")).isTrue();
+        assertThat(rejections("username")).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsAddressBeforeUsername() {
+        for (int i = 0; i < 30; i++) {
+            assertThat(limiter.tryAcquire("user" + i, "10.0.0.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("someone", "10.0.0.1")).isFalse();
+        assertThat(rejections("address")).isEqualTo(1);
+        assertThat(buckets("username")).as("rejected by address, so no username bucket").isEqualTo(30);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice", "10.0.0.1");
+        }
+        now += 11 * SECOND;
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).as("one token back after 12 s, not yet").isFalse();
+        now += SECOND;
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+        now += 60 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0.1")).as("full burst after a whole period").isTrue();
+        }
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void evictsOnlyFullyRefilledBuckets() {
+        limiter.tryAcquire("alice", "10.0.0.1");
+        now += 55 * SECOND;
+        limiter.tryAcquire("bob", "10.0.0.2");
+        now += 6 * SECOND;
+        limiter.evictIdleBuckets();
+        // Username tokens come back every 12 s, address tokens every 2 s
+        assertThat(buckets("username")).as("alice refilled, bob did not").isEqualTo(1);
+        assertThat(buckets("address")).isZero();
+        now += 60 * SECOND;
+        limiter.evictIdleBuckets();
+        assertThat(buckets("username")).isZero();
+        assertThat(buckets("address")).isZero();
+    }
+
+    private double rejections(String key) {
+        return meterRegistry.get("dws.login.rejections").tag("key", key).counter().count();
+    }
+
+    private double buckets(String key) {
+        return meterRegistry.get("dws.login.buckets").tag("key", key).gauge().value();
+    }
+}
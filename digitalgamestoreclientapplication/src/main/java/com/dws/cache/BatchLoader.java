@@ -0,0 +1,114 @@
+package com.dws.cache;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Merges single-key lookups that arrive within a short window into one batch call.
+ * The first key of a batch schedules a flush after the window; a batch that reaches
+ * its maximum size is dispatched immediately. Keys missing from the batch result
+ * complete exceptionally with the exception produced by the missingKey function.
+ * The batch call is started on the flush timer thread and must not block it:
+ * blocking clients hand the call to an executor, non-blocking clients just issue it.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class BatchLoader<K, V> {
+    private final Function<List<K>, CompletableFuture<Map<K, V>>> batchCall;
+    private final Function<K, RuntimeException> missingKey;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final TaskScheduler scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    public BatchLoader(Function<List<K>, CompletableFuture<Map<K, V>>> batchCall,
+                       Function<K, RuntimeException> missingKey,
+                       Duration window, int maxBatchSize, TaskScheduler scheduler) {
+        this.batchCall = batchCall;
+        this.missingKey = missingKey;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queues a key for the current batch.
+     *
+     * @param key Key to look up
+     * @return Future completed when the batch containing the key returns
+     */
+    public CompletableFuture<V> load(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        boolean firstInBatch;
+        lock.lock();
+        try {
+            firstInBatch = pending.isEmpty();
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            dispatch(full);
+        } else if (firstInBatch) {
+            scheduler.schedule(this::flush, Instant.now().plus(window));
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        CompletableFuture<Map<K, V>> call;
+        try {
+            call = batchCall.apply(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        call.whenComplete((results, error) -> {
+            if (error != null) {
+                batch.values().forEach(future -> future.completeExceptionally(
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+                return;
+            }
+            batch.forEach((key, future) -> {
+                V value = results != null ? results.get(key) : null;
+                if (value != null) {
+                    future.complete(value);
+                } else {
+                    future.completeExceptionally(missingKey.apply(key));
+                }
+            });
+        });
+    }
+}
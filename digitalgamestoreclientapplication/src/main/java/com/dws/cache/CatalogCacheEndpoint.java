@@ -0,0 +1,34 @@
+package com.dws.cache;
+
+import com.dws.services.GameService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint for the client-side catalogue caches (genres and catalogue version).
+ * GET /actuator/catalogcache returns their statistics,
+ * DELETE /actuator/catalogcache discards the cached genres.
+ */
+@Component
+@Endpoint(id = "catalogcache")
+public class CatalogCacheEndpoint {
+    private final GameService gameService;
+
+    public CatalogCacheEndpoint(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @ReadOperation
+    public List<RefreshAheadCache.Stats> stats() {
+        return gameService.getCatalogCacheStats();
+    }
+
+    @DeleteOperation
+    public void invalidate() {
+        gameService.invalidateCatalog();
+    }
+}
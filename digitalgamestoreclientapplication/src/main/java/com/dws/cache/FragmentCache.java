@@ -0,0 +1,111 @@
+package com.dws.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of rendered HTML fragments, bounded by the total number of characters held.
+ * Keys are expected to carry every input the fragment depends on (including a data
+ * version), so entries never need to be invalidated: outdated ones simply stop being
+ * requested and age out.
+ *
+ * @param <K> Fragment key type
+ */
+public class FragmentCache<K> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, String> fragments = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxChars;
+    private final Counter hits;
+    private final Counter misses;
+    private long chars;
+
+    public FragmentCache(String name, long maxChars, MeterRegistry meterRegistry) {
+        this.maxChars = maxChars;
+        this.hits = Counter.builder("dws.fragment.cache.requests")
+            .description("Rendered fragment lookups by outcome")
+            .tag("cache", name).tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("dws.fragment.cache.requests")
+            .description("Rendered fragment lookups by outcome")
+            .tag("cache", name).tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("dws.fragment.cache.chars", this, cache -> cache.chars)
+            .description("Characters of rendered HTML currently cached")
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached fragment, rendering and caching it on a miss.
+     * Concurrent misses for the same key may render it more than once; the result is identical.
+     *
+     * @param key Every input the fragment depends on
+     * @param renderer Starts rendering the fragment on a miss
+     * @return Future completed with the rendered fragment
+     */
+    public CompletableFuture<String> get(K key, Supplier<CompletableFuture<String>> renderer) {
+        String cached = getIfPresent(key);
+        return cached != null
+            ? CompletableFuture.completedFuture(cached)
+            : renderer.get().thenApply(rendered -> put(key, rendered));
+    }
+
+    /**
+     * Returns the cached fragment, counting the lookup as a hit or a miss.
+     * For callers that only learn the key to cache a fragment under once it is rendered; see put.
+     *
+     * @param key Every input the fragment depends on
+     * @return The cached fragment, or null
+     */
+    public String getIfPresent(K key) {
+        lock.lock();
+        try {
+            String cached = fragments.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a rendered fragment, unless it alone exceeds the cache size.
+     *
+     * @param key Every input the fragment depends on
+     * @param rendered The rendered fragment
+     * @return The rendered fragment
+     */
+    public String put(K key, String rendered) {
+        if (rendered.length() <= maxChars) {
+            store(key, rendered);
+        }
+        return rendered;
+    }
+
+    private void store(K key, String fragment) {
+        lock.lock();
+        try {
+            String previous = fragments.put(key, fragment);
+            chars += fragment.length() - (previous != null ? previous.length() : 0);
+            Iterator<Map.Entry<K, String>> eldest = fragments.entrySet().iterator();
+            while (chars > maxChars && eldest.hasNext()) {
+                chars -= eldest.next().getValue().length();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.dws.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded store of the most recent successful responses, used as a fallback while the
+ * backend is unavailable. Entries are never served while the backend is healthy; the least
+ * recently written entry is dropped once maxEntries is exceeded.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LastKnownGood<K, V> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, V> entries;
+    private final Counter fallbacksServed;
+
+    public LastKnownGood(String name, int maxEntries, MeterRegistry meterRegistry) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.fallbacksServed = Counter.builder("dws.fallback.served")
+            .description("Reads answered with last known good data during a backend outage")
+            .tag("source", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Remembers a successful response.
+     *
+     * @param key Request key
+     * @param value Response to remember
+     * @return The value, for chaining
+     */
+    public V remember(K key, V value) {
+        if (value != null) {
+            lock.lock();
+            try {
+                entries.remove(key);
+                entries.put(key, value);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the last known good value for an outage fallback, counting it as served.
+     *
+     * @param key Request key
+     * @return The remembered value, or null if there is none
+     */
+    public V fallback(K key) {
+        V value;
+        lock.lock();
+        try {
+            value = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (value != null) {
+            fallbacksServed.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Forgets a remembered value, e.g. after the underlying data changed.
+     *
+     * @param key Request key
+     */
+    public void forget(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.dws.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Single-value cache with refresh-ahead and stale-while-revalidate semantics.
+ *
+ * A value younger than refreshAfter is served as is. Between refreshAfter and expireAfter the
+ * cached value is still served, while one background refresh replaces it. Only a cold cache or a
+ * value older than expireAfter makes the caller wait for the loader, and concurrent callers
+ * share that single load.
+ *
+ * @param <T> Type of the cached value
+ */
+public class RefreshAheadCache<T> {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshFailures;
+    private volatile Entry<T> entry;
+
+    public RefreshAheadCache(String name, Supplier<T> loader, Duration refreshAfter, Duration expireAfter,
+                             Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this(name, loader, refreshAfter, expireAfter, refreshExecutor, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param clock Source of System.nanoTime()-like timestamps; tests pass a manual clock
+     */
+    RefreshAheadCache(String name, Supplier<T> loader, Duration refreshAfter, Duration expireAfter,
+                      Executor refreshExecutor, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (refreshAfter.compareTo(expireAfter) > 0) {
+            throw new IllegalArgumentException("refreshAfter must not exceed expireAfter for cache " + name);
+        }
+        this.name = name;
+        this.loader = loader;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.expireAfterNanos = expireAfter.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.staleHits = requestCounter(meterRegistry, "stale");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.refreshFailures = Counter.builder("dws.cache.refresh.failures")
+            .description("Background refreshes that failed and kept the previous value")
+            .tag("cache", name)
+            .register(meterRegistry);
+        Gauge.builder("dws.cache.hit.ratio", this, RefreshAheadCache::hitRatio)
+            .description("Share of reads served without waiting for the loader")
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value, loading it synchronously only when the cache is cold or expired.
+     *
+     * @return The current value
+     * @throws RuntimeException whatever the loader throws when a synchronous load fails
+     */
+    public T get() {
+        Entry<T> current = entry;
+        long now = clock.getAsLong();
+        if (current != null) {
+            long age = now - current.loadedAt();
+            if (age < refreshAfterNanos) {
+                hits.increment();
+                return current.value();
+            }
+            if (age < expireAfterNanos) {
+                staleHits.increment();
+                refreshInBackground();
+                return current.value();
+            }
+        }
+        misses.increment();
+        return loadNow(current);
+    }
+
+    /**
+     * Returns the last loaded value regardless of its age, without triggering a load.
+     *
+     * @return The last loaded value, or null if nothing has been loaded yet
+     */
+    public T peek() {
+        Entry<T> current = entry;
+        return current != null ? current.value() : null;
+    }
+
+    /**
+     * Discards the cached value so the next read fetches fresh data.
+     */
+    public void invalidate() {
+        loadLock.lock();
+        try {
+            generation.incrementAndGet();
+            entry = null;
+        } finally {
+            loadLock.unlock();
+        }
+        logger.info("Cache {} invalidated", name);
+    }
+
+    /**
+     * Snapshot of this cache's counters for diagnostics.
+     *
+     * @return Current statistics
+     */
+    public Stats stats() {
+        Entry<T> current = entry;
+        long ageMillis = current != null ? Duration.ofNanos(clock.getAsLong() - current.loadedAt()).toMillis() : -1;
+        return new Stats(name, (long) hits.count(), (long) staleHits.count(), (long) misses.count(),
+            (long) refreshFailures.count(), hitRatio(), ageMillis);
+    }
+
+    private T loadNow(Entry<T> seen) {
+        loadLock.lock();
+        try {
+            Entry<T> current = entry;
+            if (current != null && current != seen) {
+                // Another caller finished a load while we were waiting for the lock
+                return current.value();
+            }
+            T value = loader.get();
+            entry = new Entry<>(value, clock.getAsLong());
+            return value;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long startedGeneration = generation.get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    publishIfCurrent(loader.get(), startedGeneration);
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    logger.warn("Background refresh of cache {} failed, keeping previous value: {}", name, e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+            logger.warn("Background refresh of cache {} rejected: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores a background result unless the cache was invalidated while it was loading,
+     * in which case the result may predate the change that caused the invalidation.
+     */
+    private void publishIfCurrent(T value, long startedGeneration) {
+        loadLock.lock();
+        try {
+            if (generation.get() == startedGeneration) {
+                entry = new Entry<>(value, clock.getAsLong());
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + staleHits.count();
+        double total = served + misses.count();
+        return total == 0 ? 0.0 : served / total;
+    }
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dws.cache.requests")
+            .description("Cache reads by outcome")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    /**
+     * Point-in-time cache statistics.
+     *
+     * @param name Cache name
+     * @param hits Reads served from a fresh value
+     * @param staleHits Reads served from a value due for refresh
+     * @param misses Reads that waited for the loader
+     * @param refreshFailures Background refreshes that failed
+     * @param hitRatio Share of reads served without waiting
+     * @param ageMillis Age of the cached value, or -1 if empty
+     */
+    public record Stats(String name, long hits, long staleHits, long misses,
+                        long refreshFailures, double hitRatio, long ageMillis) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.dws.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent identical requests into one in-flight call.
+ * The first caller for a key starts the call; callers arriving while it is still running
+ * receive the same future. The key is released as soon as the call completes, so
+ * results are never cached beyond the lifetime of the call itself.
+ *
+ * @param <K> Request key type
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Joins the in-flight call for the key, or starts one.
+     *
+     * @param key Identifies the request
+     * @param call Starts the call when none is in flight
+     * @return Future completed with the flight's outcome; each caller gets its own copy,
+     *         so one caller cancelling it does not affect the others
+     */
+    public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing.copy();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.copy();
+        }
+        try {
+            call.apply(key).whenComplete((value, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * @return Number of calls currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.dws.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Small pool that runs background cache refreshes so page renders never wait for them.
+     * Refreshes are deduplicated per cache, so a couple of threads is enough.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(16);
+        executor.setDaemon(true);
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.dws.config;
+
+import com.dws.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Bounded executor used to issue independent backend calls concurrently.
+     * With platform threads it is a pool that rejects calls once its threads and queue are full,
+     * so a slow API cannot pile up unbounded work in this application. In virtual-thread mode
+     * each call gets its own virtual thread, and at most max-threads of them run at once.
+     * Calls run with the trace and log context of the request that issued them.
+     */
+    @Bean
+    public AsyncTaskExecutor backendCallExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${api.client.fan-out.core-threads:16}") int coreThreads,
+            @Value("${api.client.fan-out.max-threads:64}") int maxThreads,
+            @Value("${api.client.fan-out.queue-capacity:256}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("backend-call-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxThreads);
+            executor.setTaskDecorator(Tracing::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("backend-call-");
+        executor.setCorePoolSize(coreThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(Tracing::propagate);
+        return executor;
+    }
+
+    /**
+     * Timer thread that closes lookup batches once their collection window elapses.
+     * It only hands batches over to backendCallExecutor and never performs I/O itself.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler batchFlushScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("batch-flush-");
+        scheduler.setPoolSize(1);
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,32 @@
+package com.dws.config;
+
+import dws.shared.diagnostics.VirtualThreadPinningMonitor;
+import dws.shared.tracing.TraceStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Registers the shared diagnostics endpoints (digitalgamestoreshared), which are not in a package
+ * component scanning covers: /actuator/traces and, in virtual-thread mode, /actuator/pinning.
+ */
+@Configuration
+public class DiagnosticsConfig {
+
+    @Bean
+    public TraceStore traceStore(@Value("${tracing.buffer-size:500}") int bufferSize) {
+        return new TraceStore(bufferSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "diagnostics.pinning.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${diagnostics.pinning.threshold:PT0.02S}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold, "com.dws.");
+    }
+}
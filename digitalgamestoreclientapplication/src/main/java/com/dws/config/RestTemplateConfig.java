@@ -1,14 +1,153 @@
 package com.dws.config;
 
+import com.dws.resilience.CircuitBreaker;
+import com.dws.resilience.CircuitBreakerInterceptor;
+import com.dws.resilience.ResponseTimeout;
+import com.dws.tracing.ApiCallTracing;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP client configuration for calls to the backend API.
+ * All services share one pooled, keep-alive Apache HttpClient with bounded connect,
+ * read and pool-acquire timeouts, so a stalled API fails requests instead of hanging threads.
+ * Built through RestTemplateBuilder so every call is recorded in http.client.requests.
+ * A caller with a deadline can shorten the response timeout of its calls (see ResponseTimeout).
+ * Every call also passes through the API circuit breaker, which sheds load while the API is failing,
+ * and carries the request ID of the page it is made for (see ApiCallTracing).
+ * Bodies are exchanged as Smile (binary JSON) unless api.client.smile is false, and responses
+ * are gzip-compressed by the API; HttpClient sends Accept-Encoding and decompresses transparently.
+ */
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager apiConnectionManager(
+            @Value("${api.client.max-connections:200}") int maxConnections,
+            @Value("${api.client.max-connections-per-route:100}") int maxConnectionsPerRoute,
+            @Value("${api.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${api.client.read-timeout:PT5S}") Duration readTimeout,
+            @Value("${api.client.connection-time-to-live:PT5M}") Duration timeToLive) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.of(timeToLive))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+    }
+
+    @Bean
+    public RequestConfig apiRequestConfig(
+            @Value("${api.client.read-timeout:PT5S}") Duration readTimeout,
+            @Value("${api.client.connection-request-timeout:PT1S}") Duration connectionRequestTimeout) {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+            .setResponseTimeout(Timeout.of(readTimeout))
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient apiHttpClient(
+            PoolingHttpClientConnectionManager apiConnectionManager,
+            RequestConfig apiRequestConfig,
+            @Value("${api.client.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${api.client.idle-eviction:PT30S}") Duration idleEviction) {
+        return HttpClients.custom()
+            .setConnectionManager(apiConnectionManager)
+            .setDefaultRequestConfig(apiRequestConfig)
+            .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(idleEviction))
+            .build();
+    }
+
+    @Bean
+    public CircuitBreaker apiCircuitBreaker(
+            @Value("${api.client.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${api.client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${api.client.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${api.client.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${api.client.circuit-breaker.slow-call-threshold:PT2S}") Duration slowCallThreshold,
+            @Value("${api.client.circuit-breaker.open-duration:PT10S}") Duration openDuration,
+            @Value("${api.client.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+            MeterRegistry meterRegistry) {
+        return new CircuitBreaker("api", windowSize, minimumCalls, failureRateThreshold,
+            slowCallRateThreshold, slowCallThreshold, openDuration, halfOpenProbes, meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient apiHttpClient,
+                                     RequestConfig apiRequestConfig,
+                                     CircuitBreaker apiCircuitBreaker,
+                                     Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder,
+                                     @Value("${api.client.smile:true}") boolean smile) {
+        RestTemplate restTemplate = restTemplateBuilder
+            .requestFactory(() -> {
+                HttpComponentsClientHttpRequestFactory requestFactory =
+                    new HttpComponentsClientHttpRequestFactory(apiHttpClient);
+                // Called on the thread making the call; null keeps the client's default request config
+                requestFactory.setHttpContextFactory((method, uri) -> {
+                    Duration timeout = ResponseTimeout.current();
+                    if (timeout == null) {
+                        return null;
+                    }
+                    HttpClientContext context = HttpClientContext.create();
+                    context.setRequestConfig(RequestConfig.copy(apiRequestConfig)
+                        .setResponseTimeout(Timeout.of(timeout))
+                        .build());
+                    return context;
+                });
+                return requestFactory;
+            })
+            .additionalInterceptors(new ApiCallTracing(), new CircuitBreakerInterceptor(apiCircuitBreaker))
+            .build();
+        List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        if (smile) {
+            // Ahead of JSON, so Smile is listed first in Accept and used for request bodies
+            int json = converters.indexOf(converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .findFirst()
+                .orElseThrow());
+            converters.add(json, new MappingJackson2SmileHttpMessageConverter(
+                jacksonObjectMapperBuilder.factory(new SmileFactory()).build()));
+        }
+        return restTemplate;
+    }
+
+    /**
+     * Publishes leased, available and pending connection counts of the API connection pool.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public MeterBinder apiConnectionPoolMetrics(PoolingHttpClientConnectionManager apiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(apiConnectionManager, "api");
     }
 }
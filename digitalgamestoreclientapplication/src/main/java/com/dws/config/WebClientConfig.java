@@ -0,0 +1,101 @@
+package com.dws.config;
+
+import com.dws.resilience.CircuitBreaker;
+import com.dws.resilience.CircuitBreakerExchangeFilter;
+import com.dws.tracing.ApiCallTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking HTTP client for calls to the backend API, used when api.client.mode is reactive.
+ * Calls are multiplexed over a small, fixed set of Reactor Netty event-loop threads and a
+ * bounded keep-alive connection pool, so a request waiting on the API holds no thread.
+ * Timeouts, pool limits, compression, the Smile wire format, the circuit breaker and request ID
+ * propagation mirror the RestTemplate configuration.
+ * Built through the Boot WebClient.Builder so every call is recorded in http.client.requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "reactive")
+public class WebClientConfig {
+    private static final MimeType SMILE = new MimeType("application", "x-jackson-smile");
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider apiConnectionProvider(
+            @Value("${api.client.max-connections:200}") int maxConnections,
+            @Value("${api.client.connection-request-timeout:PT1S}") Duration connectionRequestTimeout,
+            @Value("${api.client.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${api.client.connection-time-to-live:PT5M}") Duration timeToLive,
+            @Value("${api.client.idle-eviction:PT30S}") Duration idleEviction) {
+        return ConnectionProvider.builder("api")
+            .maxConnections(maxConnections)
+            .pendingAcquireTimeout(connectionRequestTimeout)
+            .maxIdleTime(keepAlive)
+            .maxLifeTime(timeToLive)
+            .evictInBackground(idleEviction)
+            .metrics(true)
+            .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources apiEventLoops(
+            @Value("${api.client.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        return LoopResources.create("api-event-loop", eventLoopThreads, true);
+    }
+
+    @Bean
+    public WebClient apiWebClient(WebClient.Builder webClientBuilder,
+                                  ConnectionProvider apiConnectionProvider,
+                                  LoopResources apiEventLoops,
+                                  CircuitBreaker apiCircuitBreaker,
+                                  Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder,
+                                  @Value("${api.base.url}") String apiBaseUrl,
+                                  @Value("${api.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                  @Value("${api.client.read-timeout:PT5S}") Duration readTimeout,
+                                  @Value("${api.client.reactive.max-in-memory-size:64MB}") DataSize maxInMemorySize,
+                                  @Value("${api.client.smile:true}") boolean smile) {
+        HttpClient httpClient = HttpClient.create(apiConnectionProvider)
+            .runOn(apiEventLoops)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .responseTimeout(readTimeout)
+            .compress(true);
+        return webClientBuilder
+            .baseUrl(apiBaseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> {
+                codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes());
+                if (smile) {
+                    // Ahead of JSON, so request bodies are written as Smile; the MIME type must be
+                    // given explicitly, as codecs built from a mapper otherwise claim application/json
+                    ObjectMapper smileMapper = jacksonObjectMapperBuilder.factory(new SmileFactory()).build();
+                    codecs.customCodecs().registerWithDefaultConfig(new Jackson2SmileDecoder(smileMapper, SMILE));
+                    codecs.customCodecs().registerWithDefaultConfig(new Jackson2SmileEncoder(smileMapper, SMILE));
+                }
+            })
+            .defaultHeaders(headers -> {
+                if (smile) {
+                    headers.set(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9");
+                }
+            })
+            .filter(new ApiCallTracing())
+            .filter(new CircuitBreakerExchangeFilter(apiCircuitBreaker))
+            .build();
+    }
+}
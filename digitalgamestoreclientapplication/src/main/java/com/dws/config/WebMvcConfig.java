@@ -0,0 +1,50 @@
+package com.dws.config;
+
+import com.dws.events.SessionBalanceInterceptor;
+import com.dws.tracing.RenderTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final SessionBalanceInterceptor sessionBalanceInterceptor;
+    private final RenderTiming renderTiming;
+
+    public WebMvcConfig(SessionBalanceInterceptor sessionBalanceInterceptor, RenderTiming renderTiming) {
+        this.sessionBalanceInterceptor = sessionBalanceInterceptor;
+        this.renderTiming = renderTiming;
+    }
+
+    /**
+     * Corrects the session's balance before pages showing it are rendered,
+     * and starts the render phase of request traces.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sessionBalanceInterceptor).excludePathPatterns("/actuator/**");
+        registry.addInterceptor(renderTiming).excludePathPatterns("/actuator/**");
+    }
+
+    /**
+     * Resolves the locale of pages from Accept-Language, restricted to web.supported-locales;
+     * requests matching none of them get the first. Rendered catalogue tables are cached per locale,
+     * so arbitrary Accept-Language headers must not each get their own copy.
+     */
+    @Bean
+    public LocaleResolver localeResolver(@Value("${web.supported-locales:en}") String[] supportedLocales) {
+        List<Locale> locales = Arrays.stream(supportedLocales).map(Locale::forLanguageTag).toList();
+        AcceptHeaderLocaleResolver resolver = new AcceptHeaderLocaleResolver();
+        resolver.setSupportedLocales(locales);
+        resolver.setDefaultLocale(locales.get(0));
+        return resolver;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dws.controllers;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads failures of the service futures returned to asynchronous handlers.
+ */
+final class Failures {
+
+    private Failures() {
+    }
+
+    /**
+     * Returns the message of the exception a service call failed with, without the
+     * CompletionException wrapper that dependent futures put around it.
+     *
+     * @param e Failure reported by a future
+     * @return The underlying exception's message
+     */
+    static String message(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage();
+    }
+}
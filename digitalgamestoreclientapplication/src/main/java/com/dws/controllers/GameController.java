@@ -1,19 +1,31 @@
 package com.dws.controllers;
 
-import com.dws.entities.Game;
+import com.dws.services.CatalogQuery;
 import com.dws.services.GameService;
+import com.dws.views.CatalogFragmentRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller handling game-related web requests.
  * Manages game catalogue display, game details viewing, and search functionality.
  * Requires authenticated users through session management.
  * Uses Thymeleaf templates for view rendering.
+ * The catalogue table is rendered once per catalogue version and search and shared
+ * by all users; only the surrounding page is rendered per request.
+ * Handlers return futures, so with api.client.mode=reactive no request thread waits on the API.
  * Base path: /games
  */
 @Controller
@@ -21,52 +33,115 @@ import org.slf4j.LoggerFactory;
 public class GameController {
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
     private final GameService gameService;
+    private final CatalogFragmentRenderer catalogRenderer;
+    private final int pageSize;
 
-    public GameController(GameService gameService) {
+    public GameController(
+            GameService gameService,
+            CatalogFragmentRenderer catalogRenderer,
+            @Value("${games.page-size:50}") int pageSize) {
         this.gameService = gameService;
+        this.catalogRenderer = catalogRenderer;
+        this.pageSize = pageSize;
     }
 
     /**
-     * Displays the list of all games and available genres.
+     * Displays one page of the game catalogue.
+     * Search, genre filter, sort order and paging are passed through to the API,
+     * so the page size, not the catalogue size, bounds the work per request.
      * Requires authenticated user session.
      *
+     * @param q Title fragment to search for, or empty
+     * @param genre Genre to filter by, or empty for all games
+     * @param sort Sort order, one of CatalogQuery.SORTS
+     * @param page Zero-based page number
+     * @param size Games per page, capped at 100
      * @param model Model for passing data to view
      * @param session HTTP session for authentication check
-     * @return Games list view or redirect to login
+     * @param request Current request, used to render the catalogue table
+     * @param response Current response, used to render the catalogue table
+     * @return Future of the games list view or redirect to login
      */
     @GetMapping
-    public String listGames(Model model, HttpSession session) {
+    public CompletableFuture<String> listGames(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "genre", required = false) String genre,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "0") int size,
+            Model model, HttpSession session,
+            HttpServletRequest request, HttpServletResponse response) {
         if (session.getAttribute("user") == null) {
-            return "redirect:/login";
+            return CompletableFuture.completedFuture("redirect:/login");
         }
         try {
-            model.addAttribute("games", gameService.getAllGames());
-            model.addAttribute("genres", gameService.getAvailableGenres());
-            return "games/list";
+            // Both are cached; read them here rather than on the thread completing the search
+            long version = gameService.getCatalogVersion();
+            Set<String> genres = gameService.getAvailableGenres();
+            CatalogQuery query = CatalogQuery.of(q, genre, sort, page, size > 0 ? size : pageSize, genres);
+            return catalogRenderer.render(version, query, () -> catalogPage(query, genres), request, response)
+                .thenApply(table -> {
+                    model.addAttribute("catalogTable", table);
+                    return "games/list";
+                })
+                .exceptionally(e -> listError(model, e));
         } catch (Exception e) {
-            logger.error("Error loading games list: {}", e.getMessage());
-            model.addAttribute("error", "Unable to load games. Please try again later.");
-            return "error";
+            return CompletableFuture.completedFuture(listError(model, e));
         }
     }
 
+    private static String listError(Model model, Throwable e) {
+        logger.error("Error loading games list: {}", Failures.message(e));
+        model.addAttribute("error", "Unable to load games. Please try again later.");
+        return "error";
+    }
+
+    /**
+     * Fetches the template variables of one catalogue table page; a page past the last one
+     * is replaced by the last page. Only called when the rendered table is not already cached.
+     */
+    private CompletableFuture<Map<String, Object>> catalogPage(CatalogQuery query, Set<String> genres) {
+        return gameService.searchCatalogAsync(query).thenCompose(result -> {
+            int totalPages = Math.max(result.getTotalPages(), 1);
+            if (query.page() >= totalPages) {
+                // Past the last page: show the last one instead
+                return catalogPage(query.withPage(totalPages - 1), genres);
+            }
+            return CompletableFuture.completedFuture(Map.of(
+                "games", result.getGames(),
+                "genres", genres,
+                "sorts", CatalogQuery.SORTS,
+                "query", query,
+                "totalGames", result.getTotalGames(),
+                "totalPages", totalPages));
+        });
+    }
+
     /**
      * Displays detailed information for a specific game.
      * Shows game details, price, and purchase/lease options.
      *
      * @param gameId ID of the game to display
      * @param model Spring Model for passing data to view
-     * @return Game details view or error page if loading fails
+     * @return Future of the game details view or error page if loading fails
      */
     @GetMapping("/{gameId}")
-    public String getGameDetails(@PathVariable("gameId") int gameId, Model model) {
-        try {
-            Game game = gameService.getGame(gameId);
-            model.addAttribute("game", game);
-            return "games/details";
-        } catch (Exception e) {
-            model.addAttribute("error", "Error loading game details: " + e.getMessage());
-            return "error";
-        }
+    public CompletableFuture<String> getGameDetails(@PathVariable("gameId") int gameId, Model model) {
+        return gameService.getGameAsync(gameId)
+            .thenApply(game -> {
+                model.addAttribute("game", game);
+                // Kept from a failed purchase by TransactionController, so submitting it again charges once
+                if (!model.containsAttribute("purchaseKey")) {
+                    model.addAttribute("purchaseKey", UUID.randomUUID().toString());
+                }
+                if (!model.containsAttribute("leaseKey")) {
+                    model.addAttribute("leaseKey", UUID.randomUUID().toString());
+                }
+                return "games/details";
+            })
+            .exceptionally(e -> {
+                model.addAttribute("error", "Error loading game details: " + Failures.message(e));
+                return "error";
+            });
     }
 }
@@ -2,8 +2,8 @@ package com.dws.controllers;
 
 import com.dws.entities.Transaction;
 import com.dws.entities.User;
+import com.dws.services.PurchaseOutcomeUnknownException;
 import com.dws.services.TransactionService;
-import com.dws.services.UserService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,21 +12,27 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
 /**
  * Controller class that handles web requests related to transactions.
  * This controller manages user purchases, leases, and transaction history views.
  * Uses Thymeleaf templates to render views and interacts with the TransactionService.
+ * Purchase and lease forms carry a purchase key, generated when the game page is rendered and
+ * handed back to it when a purchase fails, so that submitting the same purchase twice charges once.
  */
 @Controller
 @RequestMapping("/transactions")
 public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9._-]{1,64}");
     private final TransactionService transactionService;
-    private final UserService userService;
 
-    public TransactionController(TransactionService transactionService, UserService userService) {
+    public TransactionController(TransactionService transactionService) {
         this.transactionService = transactionService;
-        this.userService = userService;
     }
 
     /**
@@ -57,62 +63,88 @@ public class TransactionController {
      * Processes a game purchase transaction.
      *
      * @param gameId ID of the game to purchase
+     * @param idempotencyKey Purchase key of the form, a new one is used if missing
      * @param session HttpSession object containing user details
      * @param redirectAttributes Spring MVC redirect attributes for flash messages
-     * @return Redirect URL after processing the purchase
+     * @return Future of the redirect URL after processing the purchase
      */
     @PostMapping("/purchase/{gameId}")
-    public String purchaseGame(
+    public CompletableFuture<String> purchaseGame(
         @PathVariable("gameId") int gameId,
+        @RequestParam(name = "idempotencyKey", required = false) String idempotencyKey,
         HttpSession session,
         RedirectAttributes redirectAttributes) {
         User user = (User) session.getAttribute("user");
         if (user == null) {
-            return "redirect:/login";
-        }
-        try {
-            transactionService.createTransaction(user.getUserId(), gameId, "Purchase");
-            session.setAttribute("user", userService.getUser(user.getUserId()));
-            logger.info("Game {} purchased successfully by user {}", gameId, user.getUsername());
-            redirectAttributes.addFlashAttribute("success", "Game purchased successfully!");
-            return "redirect:/users/profile";
-        } catch (Exception e) {
-            logger.error("Purchase failed for game {} by user {}: {}", 
-                gameId, user.getUsername(), e.getMessage());
-            redirectAttributes.addFlashAttribute("error", "Purchase failed: " + e.getMessage());
-            return "redirect:/games/" + gameId;
+            return CompletableFuture.completedFuture("redirect:/login");
         }
+        String purchaseKey = purchaseKey(idempotencyKey);
+        return transactionService.purchaseAsync(user.getUserId(), gameId, "Purchase", purchaseKey)
+            .thenApply(result -> {
+                session.setAttribute("user", result.user());
+                logger.info("Game {} purchased successfully by user {}", gameId, user.getUsername());
+                redirectAttributes.addFlashAttribute("success", "Game purchased successfully!");
+                return "redirect:/users/profile";
+            })
+            .exceptionally(e -> {
+                logger.error("Purchase failed for game {} by user {}: {}",
+                    gameId, user.getUsername(), Failures.message(e));
+                redirectAttributes.addFlashAttribute("error", failure("Purchase", e));
+                redirectAttributes.addFlashAttribute("purchaseKey", purchaseKey);
+                return "redirect:/games/" + gameId;
+            });
     }
 
     /**
      * Processes a game lease transaction.
      *
      * @param gameId ID of the game to lease
+     * @param idempotencyKey Purchase key of the form, a new one is used if missing
      * @param session HttpSession object containing user details
      * @param redirectAttributes Spring MVC redirect attributes for flash messages
-     * @return Redirect URL after processing the lease
+     * @return Future of the redirect URL after processing the lease
      */
     @PostMapping("/lease/{gameId}")
-    public String leaseGame(
+    public CompletableFuture<String> leaseGame(
         @PathVariable("gameId") int gameId,
+        @RequestParam(name = "idempotencyKey", required = false) String idempotencyKey,
         HttpSession session,
         RedirectAttributes redirectAttributes) {
         User user = (User) session.getAttribute("user");
         if (user == null) {
-            return "redirect:/login";
-        }
-        try {
-            transactionService.createTransaction(user.getUserId(), gameId, "Lease");
-            session.setAttribute("user", userService.getUser(user.getUserId()));
-            logger.info("Game {} leased successfully by user {}", gameId, user.getUsername());
-            redirectAttributes.addFlashAttribute("success", "Game leased successfully!");
-            return "redirect:/users/profile";
-        } catch (Exception e) {
-            logger.error("Lease failed for game {} by user {}: {}", 
-                gameId, user.getUsername(), e.getMessage());
-            redirectAttributes.addFlashAttribute("error", "Lease failed: " + e.getMessage());
-            return "redirect:/games/" + gameId;
+            return CompletableFuture.completedFuture("redirect:/login");
         }
+        String purchaseKey = purchaseKey(idempotencyKey);
+        return transactionService.purchaseAsync(user.getUserId(), gameId, "Lease", purchaseKey)
+            .thenApply(result -> {
+                session.setAttribute("user", result.user());
+                logger.info("Game {} leased successfully by user {}", gameId, user.getUsername());
+                redirectAttributes.addFlashAttribute("success", "Game leased successfully!");
+                return "redirect:/users/profile";
+            })
+            .exceptionally(e -> {
+                logger.error("Lease failed for game {} by user {}: {}",
+                    gameId, user.getUsername(), Failures.message(e));
+                redirectAttributes.addFlashAttribute("error", failure("Lease", e));
+                redirectAttributes.addFlashAttribute("leaseKey", purchaseKey);
+                return "redirect:/games/" + gameId;
+            });
+    }
+
+    /**
+     * Returns the purchase key the form was rendered with, or a new one for forms without a valid key.
+     */
+    private static String purchaseKey(String submitted) {
+        return submitted != null && VALID_KEY.matcher(submitted).matches() ? submitted : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Describes a failed purchase or lease; one the API may have recorded is not reported as failed.
+     */
+    private static String failure(String action, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return (cause instanceof PurchaseOutcomeUnknownException ? action + " not confirmed: " : action + " failed: ")
+            + cause.getMessage();
     }
 
     /**
@@ -2,7 +2,6 @@ package com.dws.controllers;
 
 import com.dws.entities.User;
 import com.dws.services.UserService;
-import com.dws.services.TransactionService;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +10,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller handling user-related web requests.
  * Manages user registration, profile management, account settings, and session-based authentication.
@@ -27,12 +28,11 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @RequestMapping("/users")
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+    private static final int PROFILE_PAGE_SIZE = 20;
     private final UserService userService;
-    private final TransactionService transactionService;
 
-    public UserController(UserService userService, TransactionService transactionService) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.transactionService = transactionService;
     }
 
     /**
@@ -69,20 +69,30 @@ public class UserController {
 
     /**
      * Displays the user's profile page with their information and transaction history.
+     * The user, the requested page of transactions and their game titles come from a single API call.
      *
+     * @param page Zero-based page of the transaction history to show
      * @param model Spring MVC Model object for passing data to the view
      * @param session Current user's session
-     * @return The profile view name or error page if loading fails
+     * @return Future of the profile view name or error page if loading fails
      */
     @GetMapping("/profile")
-    public String showProfile(HttpSession session, Model model) {
+    public CompletableFuture<String> showProfile(@RequestParam(name = "page", defaultValue = "0") int page,
+                                                 HttpSession session, Model model) {
         User user = (User) session.getAttribute("user");
         if (user == null) {
-            return "redirect:/login";  // Changed from /users/login to /login
+            return CompletableFuture.completedFuture("redirect:/login");  // Changed from /users/login to /login
         }
-        model.addAttribute("user", user);
-        model.addAttribute("transactions", transactionService.getUserTransactions(user.getUserId()));
-        return "users/profile";
+        return userService.getProfileAsync(user.getUserId(), Math.max(page, 0), PROFILE_PAGE_SIZE)
+            .thenApply(profile -> {
+                session.setAttribute("user", profile.getUser());
+                model.addAttribute("user", profile.getUser());
+                model.addAttribute("transactions", profile.getTransactions());
+                model.addAttribute("gameTitles", profile.getGameTitles());
+                model.addAttribute("page", profile.getPage());
+                model.addAttribute("totalPages", profile.getTotalPages());
+                return "users/profile";
+            });
     }
 
     /**
@@ -2,6 +2,7 @@ package com.dws.controllers;
 
 import com.dws.entities.User;
 import com.dws.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +12,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller handling basic web navigation and error pages.
  * Manages root path routing and session-based authentication checks.
@@ -42,18 +45,20 @@ public class WebController {
     }
 
     @PostMapping("/login")
-    public String processLogin(@RequestParam("username") String username, 
+    public CompletableFuture<String> processLogin(@RequestParam("username") String username,
                              @RequestParam("password") String password,
                              HttpSession session,
+                             HttpServletRequest request,
                              RedirectAttributes redirectAttributes) {
-        try {
-            User user = userService.login(username, password);
-            session.setAttribute("user", user);
-            return "redirect:/games";
-        } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("error", "Invalid credentials");
-            return "redirect:/login";
-        }
+        return userService.loginAsync(username, password, request.getRemoteAddr())
+            .thenApply(user -> {
+                session.setAttribute("user", user);
+                return "redirect:/games";
+            })
+            .exceptionally(e -> {
+                redirectAttributes.addFlashAttribute("error", "Invalid credentials");
+                return "redirect:/login";
+            });
     }
 
     /**
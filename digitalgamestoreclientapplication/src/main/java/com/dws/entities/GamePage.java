@@ -0,0 +1,17 @@
+package com.dws.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GamePage {
+    private List<Game> games;
+    private int page;
+    private int size;
+    private long totalGames;
+    private int totalPages;
+}
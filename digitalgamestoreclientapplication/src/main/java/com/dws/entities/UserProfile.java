@@ -0,0 +1,20 @@
+package com.dws.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+    private User user;
+    private List<Transaction> transactions;
+    private Map<Integer, String> gameTitles;
+    private int page;
+    private int size;
+    private long totalTransactions;
+    private int totalPages;
+}
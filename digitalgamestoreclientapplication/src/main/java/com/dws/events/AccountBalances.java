@@ -0,0 +1,77 @@
+package com.dws.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latest account balances pushed by the API's event stream, so balances shown from the session
+ * can be corrected without asking the API. Holds the most recently changed maxEntries users.
+ * The epoch changes whenever the stream reports that events were lost; sessions from an older
+ * epoch must reload their user.
+ */
+@Component
+public class AccountBalances {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, Double> balances;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public AccountBalances(@Value("${api.events.max-balances:10000}") int maxEntries) {
+        this.balances = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Double> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Records a user's balance after a change.
+     */
+    public void update(int userId, double accountBalance) {
+        lock.lock();
+        try {
+            // Re-inserted so the most recently changed users are the ones kept
+            balances.remove(userId);
+            balances.put(userId, accountBalance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The last balance pushed for the user, or null if none is held
+     */
+    public Double latest(int userId) {
+        lock.lock();
+        try {
+            return balances.get(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets every balance and starts a new epoch, after events may have been lost.
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            balances.clear();
+            epoch.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The current epoch
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+}
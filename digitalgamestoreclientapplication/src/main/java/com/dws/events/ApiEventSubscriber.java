@@ -0,0 +1,134 @@
+package com.dws.events;
+
+import com.dws.services.GameService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Subscribes to the API's change event stream (GET /api/events) and applies each change to the
+ * client's caches as it happens: game and catalog events discard the cached catalogue and genres,
+ * balance events update the balances shown from sessions. While connected, the catalogue version
+ * is pushed rather than polled.
+ *
+ * A dropped stream is reopened with the id of the last event received, so the API replays what was
+ * missed; if it no longer can, it sends a reset event and everything derived from earlier events is
+ * discarded. A stream that stays silent for idle-timeout (the API sends a heartbeat every 15 s) is
+ * treated as dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "api.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ApiEventSubscriber {
+    private static final Logger logger = LoggerFactory.getLogger(ApiEventSubscriber.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+        new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final GameService gameService;
+    private final AccountBalances accountBalances;
+    private final ObjectMapper objectMapper;
+    private final Duration idleTimeout;
+    private final Duration reconnectDelay;
+    private final Duration maxReconnectDelay;
+    private volatile String lastEventId;
+    private Disposable subscription;
+
+    public ApiEventSubscriber(
+            WebClient.Builder webClientBuilder,
+            GameService gameService,
+            AccountBalances accountBalances,
+            ObjectMapper objectMapper,
+            @Value("${api.base.url}") String apiBaseUrl,
+            @Value("${api.events.idle-timeout:PT45S}") Duration idleTimeout,
+            @Value("${api.events.reconnect-delay:PT1S}") Duration reconnectDelay,
+            @Value("${api.events.max-reconnect-delay:PT30S}") Duration maxReconnectDelay) {
+        // A plain client: the stream is neither Smile-encoded nor subject to the circuit breaker
+        this.webClient = webClientBuilder.clone().baseUrl(apiBaseUrl).build();
+        this.gameService = gameService;
+        this.accountBalances = accountBalances;
+        this.objectMapper = objectMapper;
+        this.idleTimeout = idleTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.defer(this::connect)
+            .repeatWhen(completions -> completions.delayElements(reconnectDelay))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectDelay)
+                .maxBackoff(maxReconnectDelay)
+                .transientErrors(true)
+                .doBeforeRetry(signal -> logger.warn("API event stream failed, reconnecting: {}",
+                    signal.failure().getMessage())))
+            .subscribe(this::onEvent);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<ServerSentEvent<String>> connect() {
+        String resumeFrom = lastEventId;
+        return webClient.get()
+            .uri("/api/events")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .headers(headers -> {
+                if (resumeFrom != null) {
+                    headers.set("Last-Event-ID", resumeFrom);
+                }
+            })
+            .retrieve()
+            .bodyToFlux(EVENT_TYPE)
+            .timeout(idleTimeout)
+            .doFinally(signal -> gameService.catalogPushStopped());
+    }
+
+    private void onEvent(ServerSentEvent<String> event) {
+        if (event.event() == null || event.data() == null) {
+            return; // Heartbeat
+        }
+        try {
+            JsonNode data = objectMapper.readTree(event.data());
+            switch (event.event()) {
+                case "game", "catalog", "sync" -> gameService.catalogVersionPushed(data.get("catalogVersion").asLong());
+                case "balance" -> accountBalances.update(data.get("userId").asInt(),
+                    data.get("accountBalance").asDouble());
+                case "reset" -> {
+                    logger.warn("API events were lost, discarding cached catalogue and balances");
+                    accountBalances.reset();
+                    gameService.invalidateCatalog();
+                    gameService.catalogVersionPushed(data.get("catalogVersion").asLong());
+                }
+                default -> logger.debug("Ignoring API event {}", event.event());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not apply API event {} {}: {}", event.event(), event.id(), e.getMessage());
+        }
+        if (event.id() != null) {
+            lastEventId = event.id();
+        }
+        if ("sync".equals(event.event()) || "reset".equals(event.event())) {
+            logger.info("Subscribed to API events after event {}", event.id());
+        }
+    }
+}
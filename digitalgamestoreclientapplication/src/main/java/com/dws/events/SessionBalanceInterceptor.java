@@ -0,0 +1,56 @@
+package com.dws.events;
+
+import com.dws.entities.User;
+import com.dws.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Keeps the balance of the logged-in user's session (shown in the navigation bar) current.
+ * A balance pushed by the API replaces the session's copy; after the event stream reports lost
+ * events, the session's user is reloaded once from the API.
+ */
+@Component
+public class SessionBalanceInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(SessionBalanceInterceptor.class);
+    private static final String USER = "user";
+    private static final String EPOCH = "balanceEpoch";
+
+    private final AccountBalances accountBalances;
+    private final UserService userService;
+
+    public SessionBalanceInterceptor(AccountBalances accountBalances, UserService userService) {
+        this.accountBalances = accountBalances;
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session == null || !(session.getAttribute(USER) instanceof User user)) {
+            return true;
+        }
+        long epoch = accountBalances.epoch();
+        if (session.getAttribute(EPOCH) instanceof Long seen && seen != epoch) {
+            try {
+                session.setAttribute(USER, userService.getUser(user.getUserId()));
+            } catch (RuntimeException e) {
+                logger.warn("Could not reload user {} after lost events: {}", user.getUserId(), e.getMessage());
+                return true;
+            }
+        } else {
+            Double pushed = accountBalances.latest(user.getUserId());
+            if (pushed != null && pushed != user.getAccountBalance()) {
+                user.setAccountBalance(pushed);
+                session.setAttribute(USER, user);
+            }
+        }
+        session.setAttribute(EPOCH, epoch);
+        return true;
+    }
+}
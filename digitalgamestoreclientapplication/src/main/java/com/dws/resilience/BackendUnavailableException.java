@@ -0,0 +1,31 @@
+package com.dws.resilience;
+
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Thrown instead of calling the backend API while its circuit breaker is open.
+ */
+public class BackendUnavailableException extends RuntimeException {
+
+    public BackendUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Tells backend outages apart from ordinary errors such as 404 or 400.
+     * Read paths fall back to last known good data only for outages.
+     *
+     * @param e The exception raised by a backend call
+     * @return true if the backend was unreachable, too slow, failing with 5xx, or short-circuited
+     */
+    public static boolean isOutage(Throwable e) {
+        return e instanceof BackendUnavailableException
+            || e instanceof ResourceAccessException
+            || e instanceof HttpServerErrorException
+            || e instanceof WebClientRequestException
+            || e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+}
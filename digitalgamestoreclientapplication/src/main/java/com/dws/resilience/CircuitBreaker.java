@@ -0,0 +1,207 @@
+package com.dws.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker guarding calls to the backend API.
+ *
+ * While CLOSED, the outcomes of the last windowSize calls are recorded. Once at least
+ * minimumCalls have been seen, the breaker opens if the share of failed calls or the share
+ * of calls slower than slowCallThreshold reaches its rate threshold. While OPEN, calls are
+ * rejected immediately. After openDuration it lets halfOpenProbes calls through (HALF_OPEN):
+ * if they all succeed quickly the breaker closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final byte[] outcomes;
+    private final Counter rejectedCalls;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, Duration slowCallThreshold, Duration openDuration,
+                          int halfOpenProbes, MeterRegistry meterRegistry) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, slowCallThreshold,
+            openDuration, halfOpenProbes, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param clock Source of System.nanoTime()-like timestamps; tests pass a manual clock
+     */
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   double slowCallRateThreshold, Duration slowCallThreshold, Duration openDuration,
+                   int halfOpenProbes, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.outcomes = new byte[windowSize];
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.rejectedCalls = Counter.builder("dws.circuit.rejected")
+            .description("Calls rejected without being attempted because the circuit was open")
+            .tag("circuit", name)
+            .register(meterRegistry);
+        Gauge.builder("dws.circuit.state", this, breaker -> breaker.state.ordinal())
+            .description("Circuit state: 0 = closed, 1 = half-open, 2 = open")
+            .tag("circuit", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a call may be attempted.
+     * Every permitted call must be followed by exactly one onSuccess or onFailure.
+     *
+     * @return true if the call may proceed, false if it must fail fast
+     */
+    public boolean tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && probesStarted < halfOpenProbes) {
+                probesStarted++;
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejectedCalls.increment();
+        return false;
+    }
+
+    /**
+     * Records a call that completed without a backend failure.
+     *
+     * @param durationNanos How long the call took
+     */
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW : SUCCESS);
+    }
+
+    /**
+     * Records a call that failed because of the backend (I/O error, timeout or 5xx response).
+     */
+    public void onFailure() {
+        record(FAILURE);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(byte outcome) {
+        lock.lock();
+        try {
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (outcome != SUCCESS) {
+                        transitionTo(State.OPEN);
+                    } else if (++probesSucceeded >= halfOpenProbes) {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                case CLOSED -> {
+                    if (recorded == windowSize) {
+                        forget(outcomes[next]);
+                    } else {
+                        recorded++;
+                    }
+                    outcomes[next] = outcome;
+                    next = (next + 1) % windowSize;
+                    if (outcome == FAILURE) {
+                        failures++;
+                    } else if (outcome == SLOW) {
+                        slowCalls++;
+                    }
+                    if (recorded >= minimumCalls
+                            && (failures >= failureRateThreshold * recorded
+                                || slowCalls >= slowCallRateThreshold * recorded)) {
+                        logger.warn("Circuit {} opening: {} failures and {} slow calls in last {} calls",
+                            name, failures, slowCalls, recorded);
+                        transitionTo(State.OPEN);
+                    }
+                }
+                case OPEN -> {
+                    // Late result of a call started before the circuit opened
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void transitionTo(State target) {
+        logger.info("Circuit {} transitioning from {} to {}", name, state, target);
+        state = target;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        meterRegistry.counter("dws.circuit.transitions", "circuit", name, "to", target.name()).increment();
+    }
+}
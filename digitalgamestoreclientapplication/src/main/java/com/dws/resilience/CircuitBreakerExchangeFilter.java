@@ -0,0 +1,55 @@
+package com.dws.resilience;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient counterpart of CircuitBreakerInterceptor.
+ * I/O errors, timeouts and 5xx responses count as failures; 4xx responses count as successes.
+ * A call cancelled before it completes (for example by a caller's deadline) counts as a failure.
+ */
+public class CircuitBreakerExchangeFilter implements ExchangeFilterFunction {
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerExchangeFilter(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new BackendUnavailableException(
+                    "Backend API is unavailable (circuit " + circuitBreaker.getName() + " open)"));
+            }
+            long start = System.nanoTime();
+            // The breaker expects exactly one outcome per permitted call
+            AtomicBoolean recorded = new AtomicBoolean();
+            return next.exchange(request)
+                .doOnNext(response -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        if (response.statusCode().is5xxServerError()) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            circuitBreaker.onSuccess(System.nanoTime() - start);
+                        }
+                    }
+                })
+                .doOnError(e -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        circuitBreaker.onFailure();
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        circuitBreaker.onFailure();
+                    }
+                });
+        });
+    }
+}
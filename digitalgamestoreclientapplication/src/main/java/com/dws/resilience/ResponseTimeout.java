@@ -0,0 +1,46 @@
+package com.dws.resilience;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Response timeout of the RestTemplate calls made by the current thread, when it differs from
+ * api.client.read-timeout. Lets a caller with a deadline give a call exactly the time it has left,
+ * so the call ends by itself at the deadline instead of being abandoned while still in flight.
+ * Read by the request factory when the call is made (see RestTemplateConfig); WebClient calls set
+ * their timeout on the request itself.
+ */
+public final class ResponseTimeout {
+    private static final ThreadLocal<Duration> CURRENT = new ThreadLocal<>();
+
+    private ResponseTimeout() {
+    }
+
+    /**
+     * Runs blocking calls with the given response timeout.
+     *
+     * @param timeout Longest wait for each response
+     * @param call The calls
+     * @return The calls' result
+     */
+    public static <T> T within(Duration timeout, Supplier<T> call) {
+        Duration previous = CURRENT.get();
+        CURRENT.set(timeout);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return Response timeout set by within, or null for the configured one
+     */
+    public static Duration current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,317 @@
+package com.dws.services;
+
+import com.dws.cache.BatchLoader;
+import com.dws.cache.LastKnownGood;
+import com.dws.cache.RefreshAheadCache;
+import com.dws.cache.SingleFlight;
+import com.dws.entities.Game;
+import com.dws.entities.GamePage;
+import com.dws.resilience.BackendUnavailableException;
+import com.dws.tracing.Tracing;
+import dws.shared.tracing.Trace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caching and fallback logic of the GameService, independent of the HTTP client used.
+ * Subclasses only perform the API calls.
+ * Catalogue pages are searched, sorted and paged by the API, so the client never
+ * needs the full catalogue to render them. The genre list is cached with refresh-ahead,
+ * so callers only wait for the API while the cache is cold or expired.
+ * Single-game lookups are coalesced: concurrent requests for the same game share one
+ * in-flight call, and lookups arriving within a short window are merged into one batch call.
+ * During a backend outage, reads fall back to the last catalogue pages, games and genres successfully loaded.
+ * The API's catalogue version is polled through its own short-lived cache; a version change
+ * discards the cached genres, so catalogue edits show up without waiting for a refresh.
+ * While the API's event stream is connected, versions are pushed instead and polling stops.
+ */
+public abstract class AbstractGameService implements GameService {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractGameService.class);
+    private final RefreshAheadCache<Set<String>> genreCache;
+    private final RefreshAheadCache<Long> versionCache;
+    private final AtomicLong lastSeenVersion = new AtomicLong(Long.MIN_VALUE);
+    private volatile boolean versionPushed;
+    private final SingleFlight<Integer, Game> gameLookups = new SingleFlight<>();
+    private final BatchLoader<Integer, Game> gameBatchLoader;
+    private final Counter gameLookupCounter;
+    private final LastKnownGood<Integer, Game> lastKnownGames;
+    private final LastKnownGood<CatalogQuery, GamePage> lastKnownPages;
+
+    protected AbstractGameService(
+            Duration refreshAfter,
+            Duration expireAfter,
+            Duration versionRefreshAfter,
+            Duration batchWindow,
+            int maxBatchSize,
+            int lastKnownGoodSize,
+            int lastKnownPageSize,
+            Executor cacheRefreshExecutor,
+            TaskScheduler batchFlushScheduler,
+            MeterRegistry meterRegistry) {
+        this.genreCache = new RefreshAheadCache<>("genres", this::loadGenres,
+            refreshAfter, expireAfter, cacheRefreshExecutor, meterRegistry);
+        this.versionCache = new RefreshAheadCache<>("catalog-version", this::loadCatalogVersion,
+            versionRefreshAfter, expireAfter, cacheRefreshExecutor, meterRegistry);
+        this.gameBatchLoader = new BatchLoader<>(this::fetchGames,
+            id -> new RuntimeException("Error fetching game: Game " + id + " not found"),
+            batchWindow, maxBatchSize, batchFlushScheduler);
+        this.gameLookupCounter = Counter.builder("dws.game.lookups")
+            .description("Single-game lookups requested, before coalescing and batching")
+            .register(meterRegistry);
+        this.lastKnownGames = new LastKnownGood<>("game", lastKnownGoodSize, meterRegistry);
+        this.lastKnownPages = new LastKnownGood<>("catalog-page", lastKnownPageSize, meterRegistry);
+    }
+
+    /**
+     * Calls GET /api/games/catalog with the query's parameters.
+     *
+     * @param query The normalised search
+     * @return Future completed with the requested page
+     */
+    protected abstract CompletableFuture<GamePage> fetchCatalogPage(CatalogQuery query);
+
+    /**
+     * Calls GET /api/games/genres.
+     *
+     * @return Future completed with the genres
+     */
+    protected abstract CompletableFuture<List<String>> fetchGenres();
+
+    /**
+     * Calls GET /api/games/version.
+     *
+     * @return Future completed with the response body
+     */
+    protected abstract CompletableFuture<Map<String, Object>> fetchCatalogVersion();
+
+    /**
+     * Calls GET /api/games?ids=... for one lookup batch.
+     * Invoked from the batch flush timer, so it must hand any blocking work to another thread.
+     *
+     * @param ids IDs of the games to fetch
+     * @return Future completed with the games that exist, keyed by ID
+     */
+    protected abstract CompletableFuture<Map<Integer, Game>> fetchGames(List<Integer> ids);
+
+    /**
+     * Retrieves one page of catalogue search results from GET /api/games/catalog.
+     * Filtering, sorting and paging happen in the API, so the response size
+     * depends on the page size rather than on the catalogue size.
+     *
+     * @param query The normalised search
+     * @return The requested page of games, without descriptions
+     * @throws RuntimeException if API communication fails and no earlier result is known
+     */
+    @Override
+    public GamePage searchCatalog(CatalogQuery query) {
+        return ApiCalls.join(searchCatalogAsync(query));
+    }
+
+    @Override
+    public CompletableFuture<GamePage> searchCatalogAsync(CatalogQuery query) {
+        logger.debug("Searching catalogue: {}", query);
+        return fetchCatalogPage(query)
+            .thenApply(page -> lastKnownPages.remember(query, page))
+            .exceptionally(e -> {
+                Throwable cause = ApiCalls.unwrap(e);
+                if (ApiCalls.isClientError(cause)) {
+                    logger.error("Error searching games: {}", cause.getMessage());
+                    throw new RuntimeException("Error searching games: " + cause.getMessage());
+                }
+                GamePage fallback = BackendUnavailableException.isOutage(cause) ? lastKnownPages.fallback(query) : null;
+                if (fallback == null) {
+                    throw ApiCalls.propagate(cause);
+                }
+                logger.warn("Serving last known good catalogue page during backend outage: {}", cause.getMessage());
+                return fallback;
+            });
+    }
+
+    /**
+     * Retrieves a specific game by its ID.
+     *
+     * @param id The unique identifier of the game
+     * @return The requested Game object
+     * @throws RuntimeException if game not found or API error occurs
+     */
+    @Override
+    public Game getGame(int id) {
+        return ApiCalls.join(getGameAsync(id));
+    }
+
+    /**
+     * Looks up a game without blocking the caller.
+     * Joins an identical in-flight lookup if there is one, otherwise queues the ID
+     * for the next batch call. The wait is recorded as a game-lookup span of the current request's trace,
+     * as the batch call itself is made for several requests at once.
+     *
+     * @param id The unique identifier of the game
+     * @return Future completed with the game, or exceptionally if it is not found or the API fails
+     */
+    @Override
+    public CompletableFuture<Game> getGameAsync(int id) {
+        gameLookupCounter.increment();
+        Trace trace = Tracing.current();
+        long start = System.nanoTime();
+        CompletableFuture<Game> lookup = gameLookups.execute(id, gameBatchLoader::load);
+        if (trace != null) {
+            lookup = lookup.whenComplete((game, e) -> trace.span("game-lookup", start, "game " + id));
+        }
+        return lookup
+            .thenApply(game -> lastKnownGames.remember(id, game))
+            .exceptionally(e -> {
+                Throwable cause = ApiCalls.unwrap(e);
+                if (ApiCalls.isClientError(cause)) {
+                    throw new RuntimeException("Error fetching game: " + cause.getMessage());
+                }
+                Game fallback = BackendUnavailableException.isOutage(cause) ? lastKnownGames.fallback(id) : null;
+                if (fallback == null) {
+                    throw ApiCalls.propagate(cause);
+                }
+                logger.warn("Serving last known good game {} during backend outage: {}", id, cause.getMessage());
+                return fallback;
+            });
+    }
+
+    /**
+     * Retrieves all unique game genres from the catalogue.
+     * Used for game filtering and catalogue organization.
+     * Served from the genre cache, which is refreshed from GET /api/games/genres.
+     *
+     * @return Sorted set of unique genres
+     */
+    @Override
+    public Set<String> getAvailableGenres() {
+        try {
+            return genreCache.get();
+        } catch (RuntimeException e) {
+            Set<String> stale = genreCache.peek();
+            if (stale == null || !BackendUnavailableException.isOutage(e)) {
+                throw e;
+            }
+            return stale;
+        }
+    }
+
+    /**
+     * Returns the catalogue version last reported by the API.
+     * The version changes whenever a game is created, updated or deleted, so it can key
+     * anything derived from the catalogue. While the event stream is connected this is the last
+     * pushed version; otherwise it is served from a cache refreshed in the background,
+     * and from the last known version during a backend outage.
+     *
+     * @return Current catalogue version
+     * @throws RuntimeException if no version is known yet and API communication fails
+     */
+    @Override
+    public long getCatalogVersion() {
+        if (versionPushed) {
+            return lastSeenVersion.get();
+        }
+        try {
+            return versionCache.get();
+        } catch (RuntimeException e) {
+            // Polled or pushed, whichever came last
+            long known = lastSeenVersion.get();
+            if (known == Long.MIN_VALUE || !BackendUnavailableException.isOutage(e)) {
+                throw e;
+            }
+            return known;
+        }
+    }
+
+    /**
+     * Discards the cached genres so the next request reloads them from the API.
+     */
+    @Override
+    public void invalidateCatalog() {
+        genreCache.invalidate();
+    }
+
+    @Override
+    public void catalogVersionPushed(long version) {
+        // Discard first, so no caller pairs the new version with old games
+        if (lastSeenVersion.get() != version) {
+            logger.info("Catalogue version {} pushed, discarding cached genres", version);
+            genreCache.invalidate();
+        }
+        lastSeenVersion.set(version);
+        versionPushed = true;
+    }
+
+    @Override
+    public void catalogPushStopped() {
+        if (versionPushed) {
+            versionPushed = false;
+            // The polled version may be from before the stream connected
+            versionCache.invalidate();
+        }
+    }
+
+    /**
+     * Returns hit/miss statistics of the genre and catalogue version caches.
+     *
+     * @return Current statistics of each cache
+     */
+    @Override
+    public List<RefreshAheadCache.Stats> getCatalogCacheStats() {
+        return List.of(genreCache.stats(), versionCache.stats());
+    }
+
+    /**
+     * Loader of the version cache; discards the cached genres
+     * before a new version is published, so no caller pairs the new version with old genres.
+     *
+     * @return The catalogue version
+     * @throws RuntimeException if API communication fails
+     */
+    private Long loadCatalogVersion() {
+        Map<String, Object> response = load(fetchCatalogVersion(), "catalogue version");
+        if (response == null || !(response.get("version") instanceof Number version)) {
+            throw new RuntimeException("Error fetching catalogue version: empty response");
+        }
+        long previous = lastSeenVersion.getAndSet(version.longValue());
+        if (previous != Long.MIN_VALUE && previous != version.longValue()) {
+            logger.info("Catalogue version changed from {} to {}, discarding cached genres",
+                previous, version);
+            genreCache.invalidate();
+        }
+        return version.longValue();
+    }
+
+    /**
+     * Loader of the genre cache.
+     */
+    private Set<String> loadGenres() {
+        List<String> genres = load(fetchGenres(), "genres");
+        return genres != null ? Collections.unmodifiableSet(new TreeSet<>(genres)) : Set.of();
+    }
+
+    /**
+     * Waits for a cache loader's API call, turning 4xx responses into the service's usual error.
+     * Cache loaders run on the cache refresh executor or on a caller that must wait anyway.
+     */
+    private <T> T load(CompletableFuture<T> call, String what) {
+        try {
+            return ApiCalls.join(call);
+        } catch (RuntimeException e) {
+            if (ApiCalls.isClientError(e)) {
+                logger.error("Error fetching {}: {}", what, e.getMessage());
+                throw new RuntimeException("Error fetching " + what + ": " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+}
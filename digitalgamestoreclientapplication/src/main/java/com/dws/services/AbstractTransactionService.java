@@ -0,0 +1,287 @@
+package com.dws.services;
+
+import com.dws.entities.Game;
+import com.dws.entities.Transaction;
+import com.dws.entities.User;
+import com.dws.resilience.BackendUnavailableException;
+import com.dws.tracing.Tracing;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Purchase flow and error handling of the TransactionService, independent of the HTTP client used.
+ * Subclasses only perform the API calls.
+ * Coordinates with UserService and GameService for complete transaction processing.
+ */
+public abstract class AbstractTransactionService implements TransactionService {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractTransactionService.class);
+    /** Request header carrying the purchase key, which the API records the transaction under. */
+    protected static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private final UserService userService;
+    private final GameService gameService;
+    private final Duration purchaseTimeout;
+    private final Duration slowThreshold;
+
+    protected AbstractTransactionService(
+            UserService userService,
+            GameService gameService,
+            Duration purchaseTimeout,
+            Duration slowThreshold) {
+        this.userService = userService;
+        this.gameService = gameService;
+        this.purchaseTimeout = purchaseTimeout;
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Calls GET /api/transactions.
+     *
+     * @return Future completed with all transactions
+     */
+    protected abstract CompletableFuture<List<Transaction>> fetchTransactions();
+
+    /**
+     * Calls GET /api/transactions/{id}.
+     *
+     * @param id The unique identifier of the transaction
+     * @return Future completed with the transaction
+     */
+    protected abstract CompletableFuture<Transaction> fetchTransaction(int id);
+
+    /**
+     * Calls GET /api/transactions/user/{userId}.
+     *
+     * @param userId The ID of the user
+     * @return Future completed with the user's transactions
+     */
+    protected abstract CompletableFuture<List<Transaction>> fetchUserTransactions(int userId);
+
+    /**
+     * Calls POST /api/transactions with an Idempotency-Key header.
+     * The call must end by itself once the response timeout has passed; it is never cancelled.
+     *
+     * @param transaction The transaction to record
+     * @param idempotencyKey Key the API records the transaction under, so that sending it again is safe
+     * @param responseTimeout Longest wait for the response, in place of api.client.read-timeout
+     * @return Future completed with the stored transaction
+     */
+    protected abstract CompletableFuture<Transaction> postTransaction(
+        Transaction transaction, String idempotencyKey, Duration responseTimeout);
+
+    /**
+     * Starts a backend call so that it runs concurrently with the caller.
+     * Blocking clients move the call to another thread; non-blocking clients just issue it.
+     *
+     * @param call Starts the call
+     * @return Future of the call's result
+     */
+    protected abstract <T> CompletableFuture<T> concurrently(Supplier<CompletableFuture<T>> call);
+
+    @Override
+    public List<Transaction> getAllTransactions() {
+        return ApiCalls.join(fetchTransactions().exceptionally(e -> {
+            throw clientError(e, "Error fetching transactions");
+        }));
+    }
+
+    @Override
+    public Transaction getTransaction(int id) {
+        return ApiCalls.join(fetchTransaction(id).exceptionally(e -> {
+            throw clientError(e, "Error fetching transaction");
+        }));
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByUserId(int userId) {
+        return ApiCalls.join(fetchUserTransactions(userId).exceptionally(e -> {
+            throw clientError(e, "Error fetching user transactions");
+        }));
+    }
+
+    @Override
+    public PurchaseResult purchase(int userId, int gameId, String type) {
+        return ApiCalls.join(purchaseAsync(userId, gameId, type));
+    }
+
+    /**
+     * Purchases or leases a game and returns the transaction together with the charged user.
+     * The user and game lookups are independent and run concurrently; the whole flow
+     * shares one deadline. Lookups still running at the deadline are cancelled. The POST is
+     * never abandoned, as the API may record the transaction whatever happens to the client:
+     * it is given the time left as its response timeout and waited for. If it gets no answer,
+     * the outcome is reported as unknown, and the purchase can be sent again with the same key.
+     * The API deducts the balance itself when it records the transaction, so the
+     * returned user is derived locally instead of being fetched again.
+     *
+     * @param userId The ID of the user making the purchase/lease
+     * @param gameId The ID of the game being purchased/leased
+     * @param type The transaction type ("Purchase" or "Lease")
+     * @param purchaseKey Key the API records the transaction under
+     * @return Future completed with the created transaction and the user with their new balance
+     */
+    @Override
+    public CompletableFuture<PurchaseResult> purchaseAsync(int userId, int gameId, String type, String purchaseKey) {
+        long start = System.nanoTime();
+        long deadline = start + purchaseTimeout.toNanos();
+        StringBuilder timings = new StringBuilder();
+        CompletableFuture<User> userLookup = concurrently(() -> userService.getUserAsync(userId));
+        CompletableFuture<Game> gameLookup = gameService.getGameAsync(gameId);
+        CompletableFuture<PurchaseResult> result = userLookup.thenCombine(gameLookup, Lookups::new)
+            .orTimeout(purchaseTimeout.toNanos(), TimeUnit.NANOSECONDS)
+            // The lookups may complete on a thread outside this request, which the POST must still carry
+            .thenCompose(Tracing.propagate(lookups -> {
+                long lookedUp = System.nanoTime();
+                timings.append("lookups=").append(millisBetween(start, lookedUp)).append("ms");
+                User user = lookups.user();
+                Game game = lookups.game();
+
+                // Fix: Get correct price based on transaction type
+                double cost = "Purchase".equals(type) ? game.getPrice() : game.getLeasePrice();
+                logger.info("Creating {} transaction for game {}. Cost: ${}", type, gameId, cost);
+
+                if (user.getAccountBalance() < cost) {
+                    throw new RuntimeException("Insufficient funds");
+                }
+
+                Transaction transaction = new Transaction();
+                transaction.setUserId(userId);
+                transaction.setGameId(gameId);
+                transaction.setTransactionType(type);
+                transaction.setAmount(cost);  // Set the correct amount based on transaction type
+
+                LocalDate today = LocalDate.now();
+                transaction.setTransactionDate(today.toString());
+
+                if ("Lease".equals(type)) {
+                    transaction.setExpiryDate(today.plusDays(30).toString());
+                }
+
+                long remaining = deadline - lookedUp;
+                if (remaining <= 0) {
+                    throw new CompletionException(new TimeoutException());
+                }
+                // The API validates the balance again and deducts it in the same call
+                return concurrently(() -> postTransaction(transaction, purchaseKey, Duration.ofNanos(remaining)))
+                    .handle((savedTransaction, e) -> {
+                        timings.append(", create=").append(millisBetween(lookedUp, System.nanoTime())).append("ms");
+                        if (e != null) {
+                            throw creationFailure(e);
+                        }
+                        if (savedTransaction == null) {
+                            throw new RuntimeException("Empty response from transaction API");
+                        }
+                        user.setAccountBalance(user.getAccountBalance() - savedTransaction.getAmount());
+                        return new PurchaseResult(savedTransaction, user);
+                    });
+            }));
+        return result.handle((purchase, e) -> {
+            logTimings(userId, gameId, start, timings);
+            if (e == null) {
+                return purchase;
+            }
+            Throwable cause = ApiCalls.unwrap(e);
+            if (cause instanceof PurchaseOutcomeUnknownException unknown) {
+                logger.warn("Transaction outcome unknown for key {}: {}", purchaseKey, unknown.getCause().toString());
+                throw unknown;
+            }
+            String message = cause.getMessage();
+            if (cause instanceof TimeoutException) {
+                // Nothing was sent to the transaction API yet
+                userLookup.cancel(true);
+                gameLookup.cancel(true);
+                message = "Timed out during lookups";
+            }
+            logger.error("Transaction creation failed: {}", message);
+            throw new RuntimeException("Failed to create transaction: " + message);
+        });
+    }
+
+    /**
+     * Tells a POST the API answered, whose transaction was committed or rolled back before the answer,
+     * from one that may or may not have reached it.
+     *
+     * @param e Failure of the POST
+     * @return Exception to complete the purchase with
+     */
+    private static RuntimeException creationFailure(Throwable e) {
+        Throwable cause = ApiCalls.unwrap(e);
+        if (cause instanceof RestClientResponseException
+                || cause instanceof WebClientResponseException
+                || cause instanceof BackendUnavailableException
+                || causedBy(cause, ConnectException.class)) {
+            throw ApiCalls.propagate(cause);
+        }
+        throw new PurchaseOutcomeUnknownException("The store did not confirm the transaction in time, so it may "
+            + "or may not have been recorded; trying again will not charge you twice", cause);
+    }
+
+    private static boolean causedBy(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Lookups(User user, Game game) {
+    }
+
+    private void logTimings(int userId, int gameId, long start, CharSequence timings) {
+        long total = System.nanoTime() - start;
+        if (total > slowThreshold.toNanos()) {
+            logger.warn("Slow purchase for user {} game {}: total={}ms, {}",
+                userId, gameId, TimeUnit.NANOSECONDS.toMillis(total), timings);
+        } else {
+            logger.debug("Purchase for user {} game {}: total={}ms, {}",
+                userId, gameId, TimeUnit.NANOSECONDS.toMillis(total), timings);
+        }
+    }
+
+    private static long millisBetween(long from, long to) {
+        return TimeUnit.NANOSECONDS.toMillis(to - from);
+    }
+
+    @Override
+    public List<Transaction> getUserTransactions(int userId) {
+        try {
+            return ApiCalls.join(fetchUserTransactions(userId));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch user transactions: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getGameTitle(int gameId) {
+        try {
+            Game game = gameService.getGame(gameId);
+            return game.getTitle();
+        } catch (Exception e) {
+            logger.warn("Could not fetch game title for ID {}: {}", gameId, e.getMessage());
+            return "Game " + gameId;
+        }
+    }
+
+    /**
+     * Turns a 4xx response into a RuntimeException carrying the given message prefix;
+     * any other failure is propagated unchanged.
+     */
+    private static RuntimeException clientError(Throwable e, String message) {
+        Throwable cause = ApiCalls.unwrap(e);
+        if (ApiCalls.isClientError(cause)) {
+            throw new RuntimeException(message + ": " + cause.getMessage());
+        }
+        throw ApiCalls.propagate(cause);
+    }
+}
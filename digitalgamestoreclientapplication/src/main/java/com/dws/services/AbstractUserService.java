@@ -0,0 +1,208 @@
+package com.dws.services;
+
+import com.dws.cache.LastKnownGood;
+import com.dws.entities.User;
+import com.dws.entities.UserProfile;
+import com.dws.resilience.BackendUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Error handling and fallback logic of the UserService, independent of the HTTP client used.
+ * Subclasses only perform the API calls.
+ * Profile pages fall back to the last version successfully loaded while the backend is down.
+ */
+public abstract class AbstractUserService implements UserService {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractUserService.class);
+    private final LastKnownGood<String, UserProfile> lastKnownProfiles;
+
+    protected AbstractUserService(int lastKnownGoodSize, MeterRegistry meterRegistry) {
+        this.lastKnownProfiles = new LastKnownGood<>("profile", lastKnownGoodSize, meterRegistry);
+    }
+
+    /**
+     * Calls POST /api/users/login, forwarding the end user's address in X-Forwarded-For.
+     *
+     * @param credentials Username and password
+     * @param clientAddress The end user's address, or null if unknown
+     * @return Future completed with the authenticated user
+     */
+    protected abstract CompletableFuture<User> postLogin(Map<String, String> credentials, String clientAddress);
+
+    /**
+     * Calls GET /api/users.
+     *
+     * @return Future completed with all users
+     */
+    protected abstract CompletableFuture<List<User>> fetchUsers();
+
+    /**
+     * Calls GET /api/users/{id}.
+     *
+     * @param id The unique identifier of the user
+     * @return Future completed with the user
+     */
+    protected abstract CompletableFuture<User> fetchUser(int id);
+
+    /**
+     * Calls GET /api/users/{id}/profile.
+     *
+     * @param id The unique identifier of the user
+     * @param page Zero-based page of transactions
+     * @param size Number of transactions per page
+     * @return Future completed with the profile
+     */
+    protected abstract CompletableFuture<UserProfile> fetchProfile(int id, int page, int size);
+
+    /**
+     * Calls POST /api/users.
+     *
+     * @param user The user to create
+     * @return Future completed with the created user
+     */
+    protected abstract CompletableFuture<User> postUser(User user);
+
+    /**
+     * Calls PUT /api/users/{id}.
+     *
+     * @param id The unique identifier of the user
+     * @param user The updated user
+     * @return Future completed when the update is stored
+     */
+    protected abstract CompletableFuture<Void> putUser(int id, User user);
+
+    /**
+     * Calls DELETE /api/users/{id}.
+     *
+     * @param id The unique identifier of the user
+     * @return Future completed when the user is deleted
+     */
+    protected abstract CompletableFuture<Void> deleteUserById(int id);
+
+    @Override
+    public User login(String username, String password, String clientAddress) {
+        return ApiCalls.join(loginAsync(username, password, clientAddress));
+    }
+
+    @Override
+    public CompletableFuture<User> loginAsync(String username, String password, String clientAddress) {
+        logger.info("Attempting login for user: {}", username);
+        return postLogin(Map.of("username", username, "password", password), clientAddress)
+            .exceptionally(e -> {
+                Throwable cause = ApiCalls.unwrap(e);
+                if (ApiCalls.isClientError(cause)) {
+                    logger.error("Login failed for user {}: {}", username, cause.getMessage());
+                    throw new RuntimeException("Invalid credentials");
+                }
+                throw ApiCalls.propagate(cause);
+            });
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        logger.info("Fetching all users");
+        return ApiCalls.join(fetchUsers().exceptionally(e -> {
+            throw clientError(e, "Error fetching users");
+        }));
+    }
+
+    @Override
+    public User getUser(int id) {
+        return ApiCalls.join(getUserAsync(id));
+    }
+
+    @Override
+    public CompletableFuture<User> getUserAsync(int id) {
+        logger.info("Fetching user with ID: {}", id);
+        return fetchUser(id).exceptionally(e -> {
+            throw clientError(e, "Error fetching user");
+        });
+    }
+
+    @Override
+    public UserProfile getProfile(int id, int page, int size) {
+        return ApiCalls.join(getProfileAsync(id, page, size));
+    }
+
+    @Override
+    public CompletableFuture<UserProfile> getProfileAsync(int id, int page, int size) {
+        logger.info("Fetching profile for user with ID: {}", id);
+        String key = id + ":" + page + ":" + size;
+        return fetchProfile(id, page, size)
+            .thenApply(profile -> lastKnownProfiles.remember(key, profile))
+            .exceptionally(e -> {
+                Throwable cause = ApiCalls.unwrap(e);
+                UserProfile fallback = BackendUnavailableException.isOutage(cause)
+                    ? lastKnownProfiles.fallback(key) : null;
+                if (fallback == null) {
+                    throw clientError(cause, "Error fetching profile");
+                }
+                logger.warn("Serving last known good profile for user {} during backend outage: {}",
+                    id, cause.getMessage());
+                return fallback;
+            });
+    }
+
+    @Override
+    public User getUserByUsername(String username) {
+        logger.info("Fetching user with username: {}", username);
+        try {
+            return getAllUsers().stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        } catch (Exception e) {
+            logger.error("Error fetching user with username {}: {}", username, e.getMessage());
+            throw new RuntimeException("Error fetching user by username: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public User createUser(User user) {
+        logger.info("Creating user: {}", user.getUsername());
+        return ApiCalls.join(postUser(user).exceptionally(e -> {
+            throw clientError(e, "Error creating user");
+        }));
+    }
+
+    @Override
+    public void updateUser(int id, User user) {
+        logger.info("Updating user with ID: {}", id);
+        ApiCalls.join(putUser(id, user).exceptionally(e -> {
+            throw clientError(e, "Error updating user");
+        }));
+    }
+
+    @Override
+    public void deleteUser(int id) {
+        logger.info("Deleting user with ID: {}", id);
+        ApiCalls.join(deleteUserById(id).exceptionally(e -> {
+            throw clientError(e, "Error deleting user");
+        }));
+    }
+
+    @Override
+    public void addBalance(String username, double amount) {
+        logger.info("Adding balance for user: {}", username);
+        User user = getUserByUsername(username);
+        user.setAccountBalance(user.getAccountBalance() + amount);
+        updateUser(user.getUserId(), user);
+    }
+
+    /**
+     * Turns a 4xx response into a RuntimeException carrying the given message prefix;
+     * any other failure is propagated unchanged.
+     */
+    private static RuntimeException clientError(Throwable e, String message) {
+        Throwable cause = ApiCalls.unwrap(e);
+        if (ApiCalls.isClientError(cause)) {
+            logger.error("{}: {}", message, cause.getMessage());
+            throw new RuntimeException(message + ": " + cause.getMessage());
+        }
+        throw ApiCalls.propagate(cause);
+    }
+}
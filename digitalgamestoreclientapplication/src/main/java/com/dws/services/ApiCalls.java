@@ -0,0 +1,78 @@
+package com.dws.services;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers shared by the RestTemplate and WebClient service implementations,
+ * so both surface backend errors to callers in the same way.
+ */
+final class ApiCalls {
+
+    private ApiCalls() {
+    }
+
+    /**
+     * Runs a blocking call on the current thread, capturing its result or failure in a future.
+     *
+     * @param call The blocking call
+     * @return Future that is already complete when this method returns
+     */
+    static <T> CompletableFuture<T> inline(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, Runnable::run);
+    }
+
+    /**
+     * Waits for a backend call and rethrows its failure unwrapped.
+     *
+     * @param call The pending call
+     * @return The call's result
+     */
+    static <T> T join(CompletableFuture<T> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Strips the CompletionException/ExecutionException wrappers futures put around failures.
+     *
+     * @param e Failure reported by a future
+     * @return The underlying exception
+     */
+    static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Tells whether the API rejected a call with a 4xx status, whichever client made it.
+     *
+     * @param e Failure of a backend call
+     * @return true for 4xx responses
+     */
+    static boolean isClientError(Throwable e) {
+        return e instanceof HttpClientErrorException
+            || e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    /**
+     * Rethrows a failure as an unchecked exception, unwrapped, so it propagates through future stages.
+     *
+     * @param e Failure reported by a future
+     * @return Never returns
+     */
+    static RuntimeException propagate(Throwable e) {
+        Throwable cause = unwrap(e);
+        throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+}
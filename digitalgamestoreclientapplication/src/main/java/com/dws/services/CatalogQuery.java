@@ -0,0 +1,60 @@
+package com.dws.services;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalised catalogue search, passed through to GET /api/games/catalog.
+ * Normalising here keeps equivalent requests equal, so they share cached results.
+ *
+ * @param q Title fragment to search for, empty for none
+ * @param genre Genre to filter by, empty for all genres
+ * @param sort Sort field, prefixed with '-' for descending
+ * @param page Zero-based page number
+ * @param size Games per page
+ */
+public record CatalogQuery(String q, String genre, String sort, int page, int size) {
+    /** Sort orders offered by the catalogue page, in display order. */
+    public static final List<String> SORTS = List.of("title", "-releaseDate", "price", "-price");
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Builds a query from raw request parameters, replacing missing or invalid values with defaults.
+     * Only the page number is not checked against the catalogue, as the number of pages is only known
+     * once the page has been fetched.
+     *
+     * @param q Title fragment, may be null
+     * @param genre Genre, may be null or not one of genres
+     * @param sort Sort order, may be null or unsupported
+     * @param page Page number, negative values become 0
+     * @param size Page size, clamped to 1..100
+     * @param genres Genres of the catalogue, the only ones accepted
+     * @return The normalised query
+     */
+    public static CatalogQuery of(String q, String genre, String sort, int page, int size, Set<String> genres) {
+        String trimmedGenre = genre == null ? "" : genre.trim();
+        return new CatalogQuery(
+            q == null ? "" : q.trim(),
+            genres.contains(trimmedGenre) ? trimmedGenre : "",
+            sort != null && SORTS.contains(sort) ? sort : SORTS.get(0),
+            Math.max(page, 0),
+            Math.min(Math.max(size, 1), MAX_SIZE));
+    }
+
+    /**
+     * @param page Zero-based page number
+     * @return The same search for another page
+     */
+    public CatalogQuery withPage(int page) {
+        return new CatalogQuery(q, genre, sort, page, size);
+    }
+
+    /**
+     * Whether the query contains free text. Free-text results are too varied to be worth caching.
+     *
+     * @return True if a title fragment is given
+     */
+    public boolean hasSearchText() {
+        return !q.isEmpty();
+    }
+}
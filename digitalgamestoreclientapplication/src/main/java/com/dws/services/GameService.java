@@ -1,51 +1,38 @@
 package com.dws.services;
 
+import com.dws.cache.RefreshAheadCache;
 import com.dws.entities.Game;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import java.util.Arrays;
+import com.dws.entities.GamePage;
+
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Service class that handles communication with the Game REST API.
+ * Client of the Game REST API.
  * Manages game catalogue retrieval and game information.
  * Provides game data for the store frontend and transaction processing.
+ * Implemented over RestTemplate (api.client.mode=blocking, the default) and over
+ * the non-blocking WebClient (api.client.mode=reactive).
  */
-@Service
-public class GameService {
-    private static final Logger logger = LoggerFactory.getLogger(GameService.class);
-    private final RestTemplate restTemplate;
-    private final String apiBaseUrl;
+public interface GameService {
 
-    public GameService(RestTemplate restTemplate, @Value("${api.base.url}") String apiBaseUrl) {
-        this.restTemplate = restTemplate;
-        this.apiBaseUrl = apiBaseUrl + "/api/games";
-    }
+    /**
+     * Retrieves one page of catalogue search results.
+     *
+     * @param query The normalised search
+     * @return The requested page of games, without descriptions
+     * @throws RuntimeException if API communication fails and no earlier result is known
+     */
+    GamePage searchCatalog(CatalogQuery query);
 
     /**
-     * Retrieves the complete catalogue of games from the API.
-     * Logs the retrieval process and any errors that occur.
+     * Retrieves one page of catalogue search results without blocking the caller.
      *
-     * @return List of all available games
-     * @throws RuntimeException if API communication fails
+     * @param query The normalised search
+     * @return Future completed with the page, or exceptionally as searchCatalog would throw
      */
-    public List<Game> getAllGames() {
-        logger.info("Fetching all games from API");
-        try {
-            Game[] games = restTemplate.getForObject(apiBaseUrl, Game[].class);
-            logger.debug("Successfully retrieved {} games", games != null ? games.length : 0);
-            return games != null ? Arrays.asList(games) : List.of();
-        } catch (HttpClientErrorException e) {
-            logger.error("Error fetching games: {}", e.getMessage());
-            throw new RuntimeException("Error fetching games: " + e.getMessage());
-        }
-    }
+    CompletableFuture<GamePage> searchCatalogAsync(CatalogQuery query);
 
     /**
      * Retrieves a specific game by its ID.
@@ -54,23 +41,54 @@ public class GameService {
      * @return The requested Game object
      * @throws RuntimeException if game not found or API error occurs
      */
-    public Game getGame(int id) {
-        try {
-            return restTemplate.getForObject(apiBaseUrl + "/{id}", Game.class, id);
-        } catch (HttpClientErrorException e) {
-            throw new RuntimeException("Error fetching game: " + e.getMessage());
-        }
-    }
+    Game getGame(int id);
+
+    /**
+     * Looks up a game without blocking the caller.
+     *
+     * @param id The unique identifier of the game
+     * @return Future completed with the game, or exceptionally if it is not found or the API fails
+     */
+    CompletableFuture<Game> getGameAsync(int id);
 
     /**
      * Retrieves all unique game genres from the catalogue.
-     * Used for game filtering and catalogue organization.
      *
-     * @return Set of unique genre strings
+     * @return Sorted set of unique genres
+     */
+    Set<String> getAvailableGenres();
+
+    /**
+     * Returns the catalogue version last reported by the API.
+     * The version changes whenever a game is created, updated or deleted.
+     *
+     * @return Current catalogue version
+     */
+    long getCatalogVersion();
+
+    /**
+     * Discards the cached genres so the next request reloads them from the API.
+     */
+    void invalidateCatalog();
+
+    /**
+     * Applies a catalogue version received from the API's event stream, discarding the cached
+     * genres if it changed. Until catalogPushStopped is called, getCatalogVersion
+     * returns the pushed version instead of polling the API.
+     *
+     * @param version The API's current catalogue version
+     */
+    void catalogVersionPushed(long version);
+
+    /**
+     * Called when the event stream disconnects; getCatalogVersion polls the API again.
+     */
+    void catalogPushStopped();
+
+    /**
+     * Returns hit/miss statistics of the genre and catalogue version caches.
+     *
+     * @return Current statistics of each cache
      */
-    public Set<String> getAvailableGenres() {
-        return getAllGames().stream()
-            .map(Game::getGenre)
-            .collect(Collectors.toSet());
-    }
+    List<RefreshAheadCache.Stats> getCatalogCacheStats();
 }
@@ -0,0 +1,12 @@
+package com.dws.services;
+
+/**
+ * Thrown when a purchase was sent to the API but no answer came back, so it may or may not have been
+ * recorded. Sending the purchase again with the same purchase key is safe: the API records it once.
+ */
+public class PurchaseOutcomeUnknownException extends RuntimeException {
+
+    public PurchaseOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.dws.services;
+
+import com.dws.entities.Transaction;
+import com.dws.entities.User;
+
+/**
+ * Outcome of a purchase or lease.
+ *
+ * @param transaction The transaction recorded by the API
+ * @param user The buyer with the balance the API charged them down to
+ */
+public record PurchaseResult(Transaction transaction, User user) {
+}
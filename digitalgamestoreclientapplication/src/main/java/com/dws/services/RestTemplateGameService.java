@@ -0,0 +1,85 @@
+package com.dws.services;
+
+import com.dws.entities.Game;
+import com.dws.entities.GamePage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GameService over the blocking RestTemplate (api.client.mode=blocking, the default).
+ * Calls run on the calling thread, except lookup batches, which run on the backend call executor.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateGameService extends AbstractGameService {
+    private final RestTemplate restTemplate;
+    private final String apiBaseUrl;
+    private final Executor backendCallExecutor;
+
+    public RestTemplateGameService(
+            RestTemplate restTemplate,
+            @Value("${api.base.url}") String apiBaseUrl,
+            @Value("${catalog.cache.refresh-after:PT30S}") Duration refreshAfter,
+            @Value("${catalog.cache.expire-after:PT10M}") Duration expireAfter,
+            @Value("${catalog.version.refresh-after:PT1S}") Duration versionRefreshAfter,
+            @Value("${games.batch.window:PT0.005S}") Duration batchWindow,
+            @Value("${games.batch.max-size:100}") int maxBatchSize,
+            @Value("${games.last-known-good.max-entries:10000}") int lastKnownGoodSize,
+            @Value("${games.last-known-good.max-pages:1000}") int lastKnownPageSize,
+            @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+            @Qualifier("backendCallExecutor") Executor backendCallExecutor,
+            @Qualifier("batchFlushScheduler") TaskScheduler batchFlushScheduler,
+            MeterRegistry meterRegistry) {
+        super(refreshAfter, expireAfter, versionRefreshAfter, batchWindow, maxBatchSize, lastKnownGoodSize,
+            lastKnownPageSize, cacheRefreshExecutor, batchFlushScheduler, meterRegistry);
+        this.restTemplate = restTemplate;
+        this.apiBaseUrl = apiBaseUrl + "/api/games";
+        this.backendCallExecutor = backendCallExecutor;
+    }
+
+    @Override
+    protected CompletableFuture<GamePage> fetchCatalogPage(CatalogQuery query) {
+        return ApiCalls.inline(() -> restTemplate.getForObject(
+            apiBaseUrl + "/catalog?q={q}&genre={genre}&sort={sort}&page={page}&size={size}", GamePage.class,
+            query.q(), query.genre(), query.sort(), query.page(), query.size()));
+    }
+
+    @Override
+    protected CompletableFuture<List<String>> fetchGenres() {
+        return ApiCalls.inline(() -> {
+            String[] genres = restTemplate.getForObject(apiBaseUrl + "/genres", String[].class);
+            return genres != null ? List.of(genres) : List.of();
+        });
+    }
+
+    @Override
+    protected CompletableFuture<Map<String, Object>> fetchCatalogVersion() {
+        return ApiCalls.inline(() -> restTemplate.exchange(apiBaseUrl + "/version", HttpMethod.GET, null,
+            new ParameterizedTypeReference<Map<String, Object>>() { }).getBody());
+    }
+
+    @Override
+    protected CompletableFuture<Map<Integer, Game>> fetchGames(List<Integer> ids) {
+        return CompletableFuture.supplyAsync(() -> {
+            Game[] games = restTemplate.getForObject(apiBaseUrl + "?ids={ids}", Game[].class,
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            return games == null ? Map.<Integer, Game>of()
+                : Arrays.stream(games).collect(Collectors.toMap(Game::getGameId, Function.identity()));
+        }, backendCallExecutor);
+    }
+}
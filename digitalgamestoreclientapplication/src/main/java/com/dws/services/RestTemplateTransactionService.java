@@ -0,0 +1,82 @@
+package com.dws.services;
+
+import com.dws.entities.Transaction;
+import com.dws.resilience.ResponseTimeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * TransactionService over the blocking RestTemplate (api.client.mode=blocking, the default).
+ * Calls run on the calling thread, except the concurrent purchase steps, which run on the backend call executor.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateTransactionService extends AbstractTransactionService {
+    private final RestTemplate restTemplate;
+    private final String apiBaseUrl;
+    private final Executor backendCallExecutor;
+
+    public RestTemplateTransactionService(
+            RestTemplate restTemplate,
+            @Value("${api.base.url}") String apiBaseUrl,
+            UserService userService,
+            GameService gameService,
+            @Qualifier("backendCallExecutor") Executor backendCallExecutor,
+            @Value("${purchase.timeout:PT8S}") Duration purchaseTimeout,
+            @Value("${purchase.slow-threshold:PT1S}") Duration slowThreshold) {
+        super(userService, gameService, purchaseTimeout, slowThreshold);
+        this.restTemplate = restTemplate;
+        this.apiBaseUrl = apiBaseUrl + "/api/transactions";
+        this.backendCallExecutor = backendCallExecutor;
+    }
+
+    @Override
+    protected CompletableFuture<List<Transaction>> fetchTransactions() {
+        return ApiCalls.inline(() -> {
+            Transaction[] transactions = restTemplate.getForObject(apiBaseUrl, Transaction[].class);
+            return transactions != null ? Arrays.asList(transactions) : List.of();
+        });
+    }
+
+    @Override
+    protected CompletableFuture<Transaction> fetchTransaction(int id) {
+        return ApiCalls.inline(() -> restTemplate.getForObject(apiBaseUrl + "/{id}", Transaction.class, id));
+    }
+
+    @Override
+    protected CompletableFuture<List<Transaction>> fetchUserTransactions(int userId) {
+        return ApiCalls.inline(() -> {
+            Transaction[] transactions = restTemplate.getForObject(
+                apiBaseUrl + "/user/{userId}",
+                Transaction[].class,
+                userId
+            );
+            return transactions != null ? Arrays.asList(transactions) : List.of();
+        });
+    }
+
+    @Override
+    protected CompletableFuture<Transaction> postTransaction(
+            Transaction transaction, String idempotencyKey, Duration responseTimeout) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IDEMPOTENCY_KEY, idempotencyKey);
+        return ApiCalls.inline(() -> ResponseTimeout.within(responseTimeout, () ->
+            restTemplate.postForObject(apiBaseUrl, new HttpEntity<>(transaction, headers), Transaction.class)));
+    }
+
+    @Override
+    protected <T> CompletableFuture<T> concurrently(Supplier<CompletableFuture<T>> call) {
+        return CompletableFuture.supplyAsync(() -> ApiCalls.join(call.get()), backendCallExecutor);
+    }
+}
@@ -0,0 +1,87 @@
+package com.dws.services;
+
+import com.dws.entities.User;
+import com.dws.entities.UserProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * UserService over the blocking RestTemplate (api.client.mode=blocking, the default).
+ * Calls run on the calling thread.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateUserService extends AbstractUserService {
+    private final RestTemplate restTemplate;
+    private final String apiBaseUrl;
+
+    public RestTemplateUserService(
+            RestTemplate restTemplate,
+            @Value("${api.base.url}") String apiBaseUrl,
+            @Value("${users.last-known-good.max-entries:1000}") int lastKnownGoodSize,
+            MeterRegistry meterRegistry) {
+        super(lastKnownGoodSize, meterRegistry);
+        this.restTemplate = restTemplate;
+        this.apiBaseUrl = apiBaseUrl + "/api/users";
+    }
+
+    @Override
+    protected CompletableFuture<User> postLogin(Map<String, String> credentials, String clientAddress) {
+        return ApiCalls.inline(() -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (clientAddress != null) {
+                headers.set("X-Forwarded-For", clientAddress);
+            }
+            return restTemplate.postForObject(apiBaseUrl + "/login", new HttpEntity<>(credentials, headers), User.class);
+        });
+    }
+
+    @Override
+    protected CompletableFuture<List<User>> fetchUsers() {
+        return ApiCalls.inline(() -> {
+            User[] users = restTemplate.getForObject(apiBaseUrl, User[].class);
+            return users != null ? Arrays.asList(users) : List.of();
+        });
+    }
+
+    @Override
+    protected CompletableFuture<User> fetchUser(int id) {
+        return ApiCalls.inline(() -> restTemplate.getForObject(apiBaseUrl + "/{id}", User.class, id));
+    }
+
+    @Override
+    protected CompletableFuture<UserProfile> fetchProfile(int id, int page, int size) {
+        return ApiCalls.inline(() -> restTemplate.getForObject(
+            apiBaseUrl + "/{id}/profile?page={page}&size={size}", UserProfile.class, id, page, size));
+    }
+
+    @Override
+    protected CompletableFuture<User> postUser(User user) {
+        return ApiCalls.inline(() -> restTemplate.postForObject(apiBaseUrl, user, User.class));
+    }
+
+    @Override
+    protected CompletableFuture<Void> putUser(int id, User user) {
+        return ApiCalls.inline(() -> {
+            restTemplate.put(apiBaseUrl + "/{id}", user, id);
+            return null;
+        });
+    }
+
+    @Override
+    protected CompletableFuture<Void> deleteUserById(int id) {
+        return ApiCalls.inline(() -> {
+            restTemplate.delete(apiBaseUrl + "/{id}", id);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.dws.services;
+
+import com.dws.entities.Game;
+import com.dws.entities.GamePage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GameService over the non-blocking WebClient (api.client.mode=reactive).
+ * Calls are issued on the API event loop and never hold the calling thread;
+ * only cache loads on a cold or expired cache make their caller wait.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "reactive")
+public class WebClientGameService extends AbstractGameService {
+    private final WebClient webClient;
+
+    public WebClientGameService(
+            @Qualifier("apiWebClient") WebClient webClient,
+            @Value("${catalog.cache.refresh-after:PT30S}") Duration refreshAfter,
+            @Value("${catalog.cache.expire-after:PT10M}") Duration expireAfter,
+            @Value("${catalog.version.refresh-after:PT1S}") Duration versionRefreshAfter,
+            @Value("${games.batch.window:PT0.005S}") Duration batchWindow,
+            @Value("${games.batch.max-size:100}") int maxBatchSize,
+            @Value("${games.last-known-good.max-entries:10000}") int lastKnownGoodSize,
+            @Value("${games.last-known-good.max-pages:1000}") int lastKnownPageSize,
+            @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+            @Qualifier("batchFlushScheduler") TaskScheduler batchFlushScheduler,
+            MeterRegistry meterRegistry) {
+        super(refreshAfter, expireAfter, versionRefreshAfter, batchWindow, maxBatchSize, lastKnownGoodSize,
+            lastKnownPageSize, cacheRefreshExecutor, batchFlushScheduler, meterRegistry);
+        this.webClient = webClient;
+    }
+
+    @Override
+    protected CompletableFuture<GamePage> fetchCatalogPage(CatalogQuery query) {
+        return webClient.get()
+            .uri("/api/games/catalog?q={q}&genre={genre}&sort={sort}&page={page}&size={size}",
+                query.q(), query.genre(), query.sort(), query.page(), query.size())
+            .retrieve()
+            .bodyToMono(GamePage.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<List<String>> fetchGenres() {
+        return webClient.get().uri("/api/games/genres")
+            .retrieve()
+            .bodyToMono(String[].class)
+            .map(List::of)
+            .defaultIfEmpty(List.of())
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Map<String, Object>> fetchCatalogVersion() {
+        return webClient.get().uri("/api/games/version")
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() { })
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Map<Integer, Game>> fetchGames(List<Integer> ids) {
+        return webClient.get()
+            .uri("/api/games?ids={ids}", ids.stream().map(String::valueOf).collect(Collectors.joining(",")))
+            .retrieve()
+            .bodyToMono(Game[].class)
+            .map(games -> Arrays.stream(games).collect(Collectors.toMap(Game::getGameId, Function.identity())))
+            .defaultIfEmpty(Map.of())
+            .toFuture();
+    }
+}
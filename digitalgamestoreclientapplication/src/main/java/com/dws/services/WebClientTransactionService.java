@@ -0,0 +1,78 @@
+package com.dws.services;
+
+import com.dws.entities.Transaction;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClientRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * TransactionService over the non-blocking WebClient (api.client.mode=reactive).
+ * Calls are issued on the API event loop and never hold the calling thread.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "reactive")
+public class WebClientTransactionService extends AbstractTransactionService {
+    private final WebClient webClient;
+
+    public WebClientTransactionService(
+            @Qualifier("apiWebClient") WebClient webClient,
+            UserService userService,
+            GameService gameService,
+            @Value("${purchase.timeout:PT8S}") Duration purchaseTimeout,
+            @Value("${purchase.slow-threshold:PT1S}") Duration slowThreshold) {
+        super(userService, gameService, purchaseTimeout, slowThreshold);
+        this.webClient = webClient;
+    }
+
+    @Override
+    protected CompletableFuture<List<Transaction>> fetchTransactions() {
+        return webClient.get().uri("/api/transactions")
+            .retrieve()
+            .bodyToMono(Transaction[].class)
+            .map(List::of)
+            .defaultIfEmpty(List.of())
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Transaction> fetchTransaction(int id) {
+        return webClient.get().uri("/api/transactions/{id}", id)
+            .retrieve()
+            .bodyToMono(Transaction.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<List<Transaction>> fetchUserTransactions(int userId) {
+        return webClient.get().uri("/api/transactions/user/{userId}", userId)
+            .retrieve()
+            .bodyToMono(Transaction[].class)
+            .map(List::of)
+            .defaultIfEmpty(List.of())
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Transaction> postTransaction(
+            Transaction transaction, String idempotencyKey, Duration responseTimeout) {
+        return webClient.post().uri("/api/transactions")
+            .header(IDEMPOTENCY_KEY, idempotencyKey)
+            .httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(responseTimeout))
+            .bodyValue(transaction)
+            .retrieve()
+            .bodyToMono(Transaction.class)
+            .toFuture();
+    }
+
+    @Override
+    protected <T> CompletableFuture<T> concurrently(Supplier<CompletableFuture<T>> call) {
+        return call.get();
+    }
+}
@@ -0,0 +1,99 @@
+package com.dws.services;
+
+import com.dws.entities.User;
+import com.dws.entities.UserProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * UserService over the non-blocking WebClient (api.client.mode=reactive).
+ * Calls are issued on the API event loop and never hold the calling thread.
+ */
+@Service
+@ConditionalOnProperty(name = "api.client.mode", havingValue = "reactive")
+public class WebClientUserService extends AbstractUserService {
+    private final WebClient webClient;
+
+    public WebClientUserService(
+            @Qualifier("apiWebClient") WebClient webClient,
+            @Value("${users.last-known-good.max-entries:1000}") int lastKnownGoodSize,
+            MeterRegistry meterRegistry) {
+        super(lastKnownGoodSize, meterRegistry);
+        this.webClient = webClient;
+    }
+
+    @Override
+    protected CompletableFuture<User> postLogin(Map<String, String> credentials, String clientAddress) {
+        return webClient.post().uri("/api/users/login")
+            .headers(headers -> {
+                if (clientAddress != null) {
+                    headers.set("X-Forwarded-For", clientAddress);
+                }
+            })
+            .bodyValue(credentials)
+            .retrieve()
+            .bodyToMono(User.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<List<User>> fetchUsers() {
+        return webClient.get().uri("/api/users")
+            .retrieve()
+            .bodyToMono(User[].class)
+            .map(List::of)
+            .defaultIfEmpty(List.of())
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<User> fetchUser(int id) {
+        return webClient.get().uri("/api/users/{id}", id)
+            .retrieve()
+            .bodyToMono(User.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<UserProfile> fetchProfile(int id, int page, int size) {
+        return webClient.get().uri("/api/users/{id}/profile?page={page}&size={size}", id, page, size)
+            .retrieve()
+            .bodyToMono(UserProfile.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<User> postUser(User user) {
+        return webClient.post().uri("/api/users")
+            .bodyValue(user)
+            .retrieve()
+            .bodyToMono(User.class)
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Void> putUser(int id, User user) {
+        return webClient.put().uri("/api/users/{id}", id)
+            .bodyValue(user)
+            .retrieve()
+            .toBodilessEntity()
+            .<Void>then()
+            .toFuture();
+    }
+
+    @Override
+    protected CompletableFuture<Void> deleteUserById(int id) {
+        return webClient.delete().uri("/api/users/{id}", id)
+            .retrieve()
+            .toBodilessEntity()
+            .<Void>then()
+            .toFuture();
+    }
+}
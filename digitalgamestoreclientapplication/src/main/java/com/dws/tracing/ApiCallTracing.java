@@ -0,0 +1,83 @@
+package com.dws.tracing;
+
+import dws.shared.tracing.Trace;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+/**
+ * RestTemplate interceptor and WebClient filter that send the current request's ID with every API call
+ * (X-Request-Id) and record the call, up to its response headers, as an api span of the request's trace.
+ * The timings the API returns in its own Server-Timing header are recorded too, prefixed with api-
+ * (api-total, api-repo, api-db, ...): api minus api-total is the HTTP hop, i.e. the connection pool,
+ * the network and the circuit breaker. Calls made outside a traced request pass through unchanged;
+ * batched game lookups are such calls, and are traced as game-lookup spans by the game service instead.
+ */
+public class ApiCallTracing implements ClientHttpRequestInterceptor, ExchangeFilterFunction {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Trace trace = Tracing.current();
+        if (trace == null) {
+            return execution.execute(request, body);
+        }
+        request.getHeaders().set(TracingFilter.HEADER, trace.getId());
+        String call = request.getMethod() + " " + request.getURI().getPath();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            record(trace, start, call, response.getHeaders().getFirst(TracingFilter.SERVER_TIMING));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            trace.span("api", start, call + " failed: " + e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Trace trace = Tracing.current();
+            if (trace == null) {
+                return next.exchange(request);
+            }
+            String call = request.method() + " " + request.url().getPath();
+            long start = System.nanoTime();
+            return next.exchange(ClientRequest.from(request).header(TracingFilter.HEADER, trace.getId()).build())
+                .doOnNext(response -> record(trace, start, call,
+                    response.headers().asHttpHeaders().getFirst(TracingFilter.SERVER_TIMING)))
+                .doOnError(e -> trace.span("api", start, call + " failed: " + e.getClass().getSimpleName()));
+        });
+    }
+
+    private static void record(Trace trace, long start, String call, String serverTiming) {
+        trace.span("api", start, call);
+        if (serverTiming == null) {
+            return;
+        }
+        // metric;dur=12.3;desc="..." entries, comma separated
+        for (String metric : serverTiming.split(",")) {
+            String[] parameters = metric.trim().split(";");
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("dur=")) {
+                    try {
+                        long durationNanos = (long) (Double.parseDouble(parameter.substring(4)) * 1e6);
+                        trace.span("api-" + parameters[0].trim(), start, durationNanos, call);
+                    } catch (NumberFormatException ignored) {
+                        // Not a timing we can use
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dws.tracing;
+
+import dws.shared.tracing.Trace;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Ends the handler phase of the current trace and starts the render phase once the handler has
+ * returned its view (for asynchronous handlers, once their result has been dispatched back).
+ */
+@Component
+public class RenderTiming implements HandlerInterceptor {
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        Trace trace = Tracing.current();
+        if (trace != null) {
+            trace.enterPhase("render");
+        }
+    }
+}
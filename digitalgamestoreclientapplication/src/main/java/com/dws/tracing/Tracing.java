@@ -0,0 +1,89 @@
+package com.dws.tracing;
+
+import dws.shared.tracing.Trace;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds the trace of the request the current thread is working for, so API calls can be attributed to it
+ * and carry its request ID without passing it around. Set by TracingFilter while a request is handled,
+ * and carried over to backend call threads by propagate (the backendCallExecutor's task decorator).
+ */
+public final class Tracing {
+    public static final String REQUEST_ID = "requestId";
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /**
+     * @return Trace of the request this thread works for, or null outside a traced request
+     */
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    static void set(Trace trace) {
+        CURRENT.set(trace);
+        MDC.put(REQUEST_ID, trace.getId());
+    }
+
+    static void clear() {
+        CURRENT.remove();
+        MDC.remove(REQUEST_ID);
+    }
+
+    /**
+     * Wraps a task so it runs with the submitting thread's trace and log context (MDC).
+     *
+     * @param task Task submitted from a request thread, or from anywhere else
+     * @return Task restoring the thread's previous context once it is done
+     */
+    public static Runnable propagate(Runnable task) {
+        Context context = Context.capture();
+        return () -> context.run(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps a future's continuation so it runs with the current thread's trace and log context, whichever
+     * thread completes the future; for example one that completed a batched lookup outside any request.
+     *
+     * @param function Continuation, typically passed to thenCompose
+     * @return Continuation restoring the thread's previous context once it is done
+     */
+    public static <T, R> Function<T, R> propagate(Function<T, R> function) {
+        Context context = Context.capture();
+        return value -> context.run(() -> function.apply(value));
+    }
+
+    private record Context(Trace trace, Map<String, String> log) {
+        static Context capture() {
+            return new Context(CURRENT.get(), MDC.getCopyOfContextMap());
+        }
+
+        <T> T run(Supplier<T> action) {
+            Context previous = capture();
+            apply();
+            try {
+                return action.get();
+            } finally {
+                previous.apply();
+            }
+        }
+
+        private void apply() {
+            CURRENT.set(trace);
+            if (log == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(log);
+            }
+        }
+    }
+}
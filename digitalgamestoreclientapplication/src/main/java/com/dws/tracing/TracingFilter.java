@@ -0,0 +1,82 @@
+package com.dws.tracing;
+
+import dws.shared.tracing.ServerTimingResponse;
+import dws.shared.tracing.Trace;
+import dws.shared.tracing.TraceStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the correlation of a page request: generates its request ID (or takes the caller's X-Request-Id
+ * when it looks like one), which tags every log line written for it (MDC key requestId) and is sent with
+ * every API call it makes, so the API logs and traces those calls under the same ID.
+ * The request is traced from here: the handler phase with its API calls and game lookups, then the render
+ * phase. The breakdown is returned in a Server-Timing header, timed when the response starts to be written,
+ * and the completed trace is kept in TraceStore. Asynchronous handlers (reactive mode, purchases) are traced
+ * across both of their dispatches. Actuator requests are not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Request-Id";
+    public static final String SERVER_TIMING = "Server-Timing";
+    private static final String TRACE = TracingFilter.class.getName() + ".trace";
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final TraceStore traceStore;
+
+    public TracingFilter(TraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Trace trace = request.getAttribute(TRACE) instanceof Trace started ? started : start(request, response);
+        ServerTimingResponse tracedResponse = new ServerTimingResponse(response,
+            () -> response.setHeader(SERVER_TIMING, trace.serverTiming()));
+        Tracing.set(trace);
+        try {
+            chain.doFilter(request, tracedResponse);
+        } finally {
+            Tracing.clear();
+            if (!request.isAsyncStarted()) {
+                // Responses without a body are not committed yet
+                tracedResponse.beforeCommit();
+                trace.finish(response.getStatus());
+                traceStore.add(trace);
+            }
+        }
+    }
+
+    private Trace start(HttpServletRequest request, HttpServletResponse response) {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        Trace trace = new Trace(requestId, request.getMethod() + " " + request.getRequestURI(), "handler");
+        request.setAttribute(TRACE, trace);
+        response.setHeader(HEADER, requestId);
+        return trace;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dws.views;
+
+import com.dws.cache.FragmentCache;
+import com.dws.services.CatalogQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Renders the catalogue table of games/list.html and caches the resulting HTML.
+ * The table is identical for every user, so it is keyed only by catalogue version,
+ * search and locale; the per-user parts of the page are rendered by the view as usual.
+ * Free-text searches are rendered but not cached, so arbitrary queries cannot evict
+ * the commonly browsed pages. The other key parts come from bounded sets: genres of the
+ * catalogue, existing pages and supported locales (see CatalogQuery and WebMvcConfig).
+ */
+@Component
+public class CatalogFragmentRenderer {
+    private static final String TEMPLATE = "games/catalog-table";
+
+    private final ITemplateEngine templateEngine;
+    private final FragmentCache<Key> fragments;
+    private volatile JakartaServletWebApplication application;
+
+    public CatalogFragmentRenderer(
+            ITemplateEngine templateEngine,
+            @Value("${games.fragment-cache.max-chars:8000000}") long maxChars,
+            MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.fragments = new FragmentCache<>("catalog", maxChars, meterRegistry);
+    }
+
+    /**
+     * Returns the catalogue table HTML, rendering it only if this exact table is not cached.
+     * On a miss the table is rendered on the thread that completes the variables, and cached
+     * under the query it shows: past the last page, that is the last page.
+     *
+     * @param version Catalogue version the table is built from
+     * @param query The normalised catalogue search
+     * @param variables Starts fetching the template variables on a cache miss; query holds the search shown
+     * @param request Current request, used for locale and link building
+     * @param response Current response, used for link building
+     * @return Future completed with the rendered table
+     */
+    public CompletableFuture<String> render(long version, CatalogQuery query,
+                                            Supplier<CompletableFuture<Map<String, Object>>> variables,
+                                            HttpServletRequest request, HttpServletResponse response) {
+        // One of the supported locales, unlike the raw Accept-Language of request.getLocale()
+        Locale locale = RequestContextUtils.getLocale(request);
+        IWebExchange exchange = application(request).buildExchange(request, new NonRewritingResponse(response));
+        Function<Map<String, Object>, String> renderer =
+            values -> templateEngine.process(TEMPLATE, new WebContext(exchange, locale, values));
+        if (query.hasSearchText()) {
+            return variables.get().thenApply(renderer);
+        }
+        String cached = fragments.getIfPresent(new Key(version, query, locale));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return variables.get().thenApply(values ->
+            fragments.put(new Key(version, (CatalogQuery) values.get("query"), locale), renderer.apply(values)));
+    }
+
+    private JakartaServletWebApplication application(HttpServletRequest request) {
+        JakartaServletWebApplication current = application;
+        if (current == null) {
+            current = JakartaServletWebApplication.buildApplication(request.getServletContext());
+            application = current;
+        }
+        return current;
+    }
+
+    private record Key(long version, CatalogQuery query, Locale locale) {
+    }
+
+    /**
+     * Keeps URL rewriting (;jsessionid=...) out of shared HTML: a session id
+     * embedded in a cached fragment would leak to every user served that fragment.
+     */
+    private static final class NonRewritingResponse extends HttpServletResponseWrapper {
+        NonRewritingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
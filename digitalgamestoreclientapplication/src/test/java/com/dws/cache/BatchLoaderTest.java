@@ -0,0 +1,150 @@
+package com.dws.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchLoaderTest {
+    // Flushes wait here until the test runs them, in place of the window timer
+    private final List<Runnable> flushes = new CopyOnWriteArrayList<>();
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<Map<Integer, String>>> calls = new CopyOnWriteArrayList<>();
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+
+    BatchLoaderTest() {
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            flushes.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+    }
+
+    @Test
+    void keysWithinWindowShareOneCallAndGetTheirOwnResult() {
+        BatchLoader<Integer, String> loader = loader(100);
+        CompletableFuture<String> first = loader.load(1);
+        CompletableFuture<String> second = loader.load(2);
+        CompletableFuture<String> again = loader.load(1);
+        CompletableFuture<String> missing = loader.load(3);
+
+        runFlushes();
+        calls.getFirst().complete(Map.of(1, "game 1", 2, "game 2"));
+
+        assertThat(batches).containsExactly(List.of(1, 2, 3));
+        assertThat(first.join()).isEqualTo("game 1");
+        assertThat(second.join()).isEqualTo("game 2");
+        assertThat(again).as("same key, same future").isSameAs(first);
+        assertThatThrownBy(missing::join).hasCauseInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Game 3 not found");
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        BatchLoader<Integer, String> loader = loader(2);
+        loader.load(1);
+        loader.load(2);
+        loader.load(3);
+
+        assertThat(batches).containsExactly(List.of(1, 2));
+        runFlushes();
+        assertThat(batches).containsExactly(List.of(1, 2), List.of(3));
+    }
+
+    @Test
+    void failedCallFailsEveryCallerWithItsCause() {
+        BatchLoader<Integer, String> loader = loader(100);
+        CompletableFuture<String> first = loader.load(1);
+        CompletableFuture<String> second = loader.load(2);
+        IllegalStateException failure = new IllegalStateException("API down");
+
+        runFlushes();
+        calls.getFirst().completeExceptionally(new CompletionException(failure));
+
+        assertThatThrownBy(first::join).hasCause(failure);
+        assertThatThrownBy(second::join).hasCause(failure);
+    }
+
+    @Test
+    void callThrowingBeforeReturningFailsEveryCaller() {
+        IllegalStateException failure = new IllegalStateException("rejected");
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+            throw failure;
+        }, this::notFound, Duration.ofMillis(5), 100, scheduler);
+        CompletableFuture<String> first = loader.load(1);
+        CompletableFuture<String> second = loader.load(2);
+
+        runFlushes();
+
+        assertThatThrownBy(first::join).hasCause(failure);
+        assertThatThrownBy(second::join).hasCause(failure);
+    }
+
+    @Test
+    void concurrentLoadsEndUpInOneBatch() throws Exception {
+        BatchLoader<Integer, String> loader = loader(1000);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<CompletableFuture<String>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                int key = i;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return loader.load(key);
+                }, executor));
+            }
+            start.countDown();
+        }
+
+        assertThat(flushes).as("only the first key schedules a flush").hasSize(1);
+        runFlushes();
+        assertThat(batches).hasSize(1);
+        assertThat(batches.getFirst()).hasSize(100);
+        Map<Integer, String> games = new HashMap<>();
+        batches.getFirst().forEach(key -> games.put(key, "game " + key));
+        calls.getFirst().complete(games);
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join().join()).isEqualTo("game " + i);
+        }
+    }
+
+    private BatchLoader<Integer, String> loader(int maxBatchSize) {
+        return new BatchLoader<>(keys -> {
+            batches.add(keys);
+            CompletableFuture<Map<Integer, String>> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, this::notFound, Duration.ofMillis(5), maxBatchSize, scheduler);
+    }
+
+    private RuntimeException notFound(int key) {
+        return new IllegalArgumentException("Game " + key + " not found");
+    }
+
+    private void runFlushes() {
+        List<Runnable> pending = new ArrayList<>(flushes);
+        flushes.clear();
+        pending.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,169 @@
+package com.dws.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshAheadCacheTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Background refreshes wait here until the test runs them
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile RuntimeException failure;
+    private long now = 1_000 * SECOND;
+    private RefreshAheadCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RefreshAheadCache<>("genres", this::load, Duration.ofSeconds(30), Duration.ofMinutes(10),
+            refreshes::add, meterRegistry, () -> now);
+    }
+
+    @Test
+    void servesFreshValueWithoutReloading() {
+        assertThat(cache.get()).isEqualTo("v1");
+        now += 29 * SECOND;
+
+        assertThat(cache.get()).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(refreshes).isEmpty();
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void servesStaleValueWhileOneBackgroundRefreshRuns() {
+        cache.get();
+        now += 31 * SECOND;
+
+        assertThat(cache.get()).isEqualTo("v1");
+        assertThat(cache.get()).as("still stale, refresh already started").isEqualTo("v1");
+        assertThat(refreshes).hasSize(1);
+        assertThat(loads).as("nothing loaded on the caller").hasValue(1);
+
+        runRefreshes();
+
+        assertThat(cache.get()).isEqualTo("v2");
+        assertThat(cache.stats().staleHits()).isEqualTo(2);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredValueIsLoadedOnTheCaller() {
+        cache.get();
+        now += 11 * 60 * SECOND;
+
+        assertThat(cache.get()).isEqualTo("v2");
+        assertThat(refreshes).isEmpty();
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshFinishingAfterInvalidateIsDropped() {
+        cache.get();
+        now += 31 * SECOND;
+        cache.get();
+
+        cache.invalidate();
+        runRefreshes();
+
+        assertThat(cache.peek()).as("refresh started before the invalidation").isNull();
+        assertThat(cache.get()).isEqualTo("v3");
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousValue() {
+        cache.get();
+        now += 31 * SECOND;
+        failure = new IllegalStateException("API down");
+
+        assertThat(cache.get()).isEqualTo("v1");
+        runRefreshes();
+
+        assertThat(cache.peek()).isEqualTo("v1");
+        assertThat(cache.stats().refreshFailures()).isEqualTo(1);
+        assertThat(cache.get()).isEqualTo("v1");
+        assertThat(refreshes).as("a later read retries the refresh").hasSize(1);
+
+        failure = null;
+        runRefreshes();
+
+        assertThat(cache.get()).isEqualTo("v2");
+    }
+
+    @Test
+    void failedLoadOfColdCacheReachesCallerAndCachesNothing() {
+        failure = new IllegalStateException("API down");
+
+        assertThatThrownBy(cache::get).isSameAs(failure);
+        assertThat(cache.peek()).isNull();
+
+        failure = null;
+        assertThat(cache.get()).isEqualTo("v1");
+    }
+
+    @Test
+    void concurrentColdReadsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshAheadCache<String> blocking = new RefreshAheadCache<>("genres", () -> {
+            loading.countDown();
+            await(release);
+            return load();
+        }, Duration.ofSeconds(30), Duration.ofMinutes(10), refreshes::add, meterRegistry, () -> now);
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        Thread.ofPlatform().start(() -> first.complete(blocking.get()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread waiter = Thread.ofPlatform().start(() -> second.complete(blocking.get()));
+        awaitWaiting(waiter);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+    }
+
+    private String load() {
+        if (failure != null) {
+            throw failure;
+        }
+        return "v" + loads.incrementAndGet();
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitWaiting(Thread thread) {
+        long deadline = System.nanoTime() + 5 * SECOND;
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
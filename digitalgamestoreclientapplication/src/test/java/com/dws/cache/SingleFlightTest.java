@@ -0,0 +1,108 @@
+package com.dws.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private final SingleFlight<Integer, String> flights = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<String> call = new CompletableFuture<>();
+
+    @Test
+    void concurrentCallersForSameKeyShareOneCall() throws Exception {
+        int callers = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<String>>> joined = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                joined.add(executor.submit(() -> {
+                    start.await();
+                    return flights.execute(7, this::start);
+                }));
+            }
+            start.countDown();
+        }
+
+        assertThat(calls).hasValue(1);
+        assertThat(flights.inFlightCount()).isEqualTo(1);
+        call.complete("game 7");
+        for (Future<CompletableFuture<String>> result : joined) {
+            assertThat(result.get().join()).isEqualTo("game 7");
+        }
+        assertThat(flights.inFlightCount()).isZero();
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        flights.execute(7, this::start);
+        call.complete("game 7");
+
+        flights.execute(7, key -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("game 7 again");
+        });
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        flights.execute(7, this::start);
+        flights.execute(8, this::start);
+
+        assertThat(calls).hasValue(2);
+        assertThat(flights.inFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failureReachesEveryCallerAndReleasesKey() {
+        CompletableFuture<String> first = flights.execute(7, this::start);
+        CompletableFuture<String> second = flights.execute(7, this::start);
+        IllegalStateException failure = new IllegalStateException("API down");
+
+        call.completeExceptionally(failure);
+
+        assertThatThrownBy(first::join).hasCause(failure);
+        assertThatThrownBy(second::join).hasCause(failure);
+        assertThat(flights.inFlightCount()).isZero();
+    }
+
+    @Test
+    void callThrowingBeforeReturningFailsItsCallers() {
+        IllegalStateException failure = new IllegalStateException("rejected");
+
+        CompletableFuture<String> result = flights.execute(7, key -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(result::join).hasCause(failure);
+        assertThat(flights.inFlightCount()).isZero();
+    }
+
+    @Test
+    void cancellingOneCopyLeavesOthersWaiting() {
+        CompletableFuture<String> first = flights.execute(7, this::start);
+        CompletableFuture<String> second = flights.execute(7, this::start);
+
+        first.cancel(true);
+        call.complete("game 7");
+
+        assertThat(second.join()).isEqualTo("game 7");
+    }
+
+    private CompletableFuture<String> start(int key) {
+        calls.incrementAndGet();
+        return call;
+    }
+}
@@ -0,0 +1,137 @@
+package com.dws.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final long FAST = SECOND / 10;
+    private static final long SLOW = 2 * SECOND;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now = 1_000 * SECOND;
+    // Last 10 calls, judged from 5 on: opens at 50% failures or 50% calls over 1 s; 2 probes after 30 s open
+    private final CircuitBreaker breaker = new CircuitBreaker("api", 10, 5, 0.5, 0.5, Duration.ofSeconds(1),
+        Duration.ofSeconds(30), 2, meterRegistry, () -> now);
+
+    @Test
+    void staysClosedUntilMinimumCallsAreSeen() {
+        fail(4);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        succeed(3, FAST);
+        fail(2);
+        assertThat(breaker.getState()).as("2 of 5 failed").isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.getState()).as("3 of 6 failed").isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(meterRegistry.get("dws.circuit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        succeed(5, SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void judgesOnlyTheLastWindowOfCalls() {
+        succeed(6, FAST);
+        fail(4);
+        succeed(10, FAST);
+        fail(4);
+        assertThat(breaker.getState()).as("4 of the last 10 failed").isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.getState()).as("5 of the last 10 failed").isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void letsProbesThroughAfterOpenDurationAndClosesWhenTheySucceed() {
+        fail(5);
+        now += 29 * SECOND;
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        now += SECOND;
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).as("only two probes").isFalse();
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failedProbeOpensForAnotherFullDuration() {
+        fail(5);
+        now += 30 * SECOND;
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        now += 29 * SECOND;
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        now += SECOND;
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void slowProbeOpensAgain() {
+        fail(5);
+        now += 30 * SECOND;
+        breaker.tryAcquirePermission();
+
+        breaker.onSuccess(SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void closedBreakerStartsWithEmptyWindow() {
+        fail(5);
+        now += 30 * SECOND;
+        breaker.tryAcquirePermission();
+        breaker.tryAcquirePermission();
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        // A result of a call started before the circuit opened
+        breaker.onFailure();
+
+        fail(3);
+
+        assertThat(breaker.getState()).as("4 failures, under the minimum of 5 calls").isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.get("dws.circuit.transitions").tag("to", "OPEN").counter().count()).isEqualTo(1);
+    }
+
+    private void succeed(int calls, long durationNanos) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onSuccess(durationNanos);
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.dws.services;
+
+import com.dws.entities.Game;
+import com.dws.entities.User;
+import com.dws.resilience.ResponseTimeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RestTemplateTransactionServiceTest {
+    private static final String TRANSACTIONS = "http://api/api/transactions";
+    private static final String SAVED = """
+        {"transactionId": 7, "userId": 1, "gameId": 2, "transactionType": "Purchase",
+         "transactionDate": "2026-01-01", "amount": 20.0}""";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer api = MockRestServiceServer.bindTo(restTemplate).build();
+    private final UserService userService = mock(UserService.class);
+    private final GameService gameService = mock(GameService.class);
+    private final ExecutorService backendCallExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private RestTemplateTransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUserId(1);
+        user.setAccountBalance(50);
+        Game game = new Game();
+        game.setGameId(2);
+        game.setPrice(20);
+        game.setLeasePrice(5);
+        when(userService.getUserAsync(1)).thenReturn(CompletableFuture.completedFuture(user));
+        when(gameService.getGameAsync(2)).thenReturn(CompletableFuture.completedFuture(game));
+        service = service(Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backendCallExecutor.shutdownNow();
+    }
+
+    @Test
+    void postsWithKeyAndTimeLeftThenChargesLocally() {
+        AtomicReference<Duration> responseTimeout = new AtomicReference<>();
+        api.expect(requestTo(TRANSACTIONS))
+            .andExpect(method(HttpMethod.POST))
+            .andExpect(header(AbstractTransactionService.IDEMPOTENCY_KEY, "key-1"))
+            .andExpect(jsonPath("$.amount").value(20.0))
+            .andRespond(request -> {
+                responseTimeout.set(ResponseTimeout.current());
+                return withSuccess(SAVED, MediaType.APPLICATION_JSON).createResponse(request);
+            });
+
+        PurchaseResult result = ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-1"));
+
+        api.verify();
+        assertThat(result.transaction().getTransactionId()).isEqualTo(7);
+        assertThat(result.user().getAccountBalance()).as("balance derived without a second lookup").isEqualTo(30);
+        assertThat(responseTimeout.get()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void lookupTimeoutFailsBeforeAnythingIsPosted() {
+        CompletableFuture<Game> stalled = new CompletableFuture<>();
+        when(gameService.getGameAsync(2)).thenReturn(stalled);
+        service = service(Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-1")))
+            .isNotInstanceOf(PurchaseOutcomeUnknownException.class)
+            .hasMessageContaining("Timed out during lookups");
+
+        api.verify();
+        assertThat(stalled).as("lookup cancelled").isCancelled();
+    }
+
+    @Test
+    void postTimeoutIsOutcomeUnknownAndRetryReusesTheKey() {
+        api.expect(requestTo(TRANSACTIONS))
+            .andExpect(header(AbstractTransactionService.IDEMPOTENCY_KEY, "key-2"))
+            .andRespond(withException(new SocketTimeoutException("Read timed out")));
+        api.expect(requestTo(TRANSACTIONS))
+            .andExpect(header(AbstractTransactionService.IDEMPOTENCY_KEY, "key-2"))
+            .andRespond(withSuccess(SAVED, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-2")))
+            .isInstanceOf(PurchaseOutcomeUnknownException.class);
+        PurchaseResult retried = ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-2"));
+
+        api.verify();
+        assertThat(retried.transaction().getTransactionId()).isEqualTo(7);
+    }
+
+    @Test
+    void answeredRejectionIsFailureNotOutcomeUnknown() {
+        api.expect(requestTo(TRANSACTIONS))
+            .andRespond(withStatus(HttpStatus.BAD_REQUEST).body("Insufficient funds"));
+
+        assertThatThrownBy(() -> ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-3")))
+            .isNotInstanceOf(PurchaseOutcomeUnknownException.class)
+            .hasMessageStartingWith("Failed to create transaction");
+    }
+
+    @Test
+    void refusedConnectionIsFailureNotOutcomeUnknown() {
+        api.expect(requestTo(TRANSACTIONS))
+            .andRespond(withException(new ConnectException("Connection refused")));
+
+        assertThatThrownBy(() -> ApiCalls.join(service.purchaseAsync(1, 2, "Purchase", "key-4")))
+            .isNotInstanceOf(PurchaseOutcomeUnknownException.class)
+            .hasMessageStartingWith("Failed to create transaction");
+    }
+
+    @Test
+    void insufficientBalanceIsRejectedWithoutPosting() {
+        Game expensive = new Game();
+        expensive.setGameId(3);
+        expensive.setPrice(80);
+        when(gameService.getGameAsync(3)).thenReturn(CompletableFuture.completedFuture(expensive));
+
+        assertThatThrownBy(() -> ApiCalls.join(service.purchaseAsync(1, 3, "Purchase", "key-5")))
+            .hasMessageContaining("Insufficient funds");
+        api.verify();
+    }
+
+    private RestTemplateTransactionService service(Duration purchaseTimeout) {
+        return new RestTemplateTransactionService(restTemplate, "http://api", userService, gameService,
+            backendCallExecutor, purchaseTimeout, Duration.ofSeconds(1));
+    }
+}
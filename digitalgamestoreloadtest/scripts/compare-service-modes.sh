@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Compares the blocking (RestTemplate) and reactive (WebClient) service layers of the web client
+# under the same fixed thread budget: 32 Tomcat request threads and at most 16 backend call threads.
+# For each mode it starts the API and the web client from their boot jars, runs the browse flow at
+# increasing concurrency, and appends one JSON line per run to results/service-modes.jsonl.
+# It then reports, per mode, the highest concurrency served without errors within the p99 SLO.
+#
+# Requires the MariaDB container (docker compose -f digitalgamestore/docker-compose.yml up -d mariadb)
+# with the game catalogue loaded from InsertIntoGame.sql.
+#
+# Usage: scripts/compare-service-modes.sh [p99-slo-millis] [duration] [concurrency...]
+set -euo pipefail
+
+SLO_MILLIS="${1:-500}"
+DURATION="${2:-PT30S}"
+shift $(( $# > 2 ? 2 : $# ))
+LEVELS="${*:-50 100 200 400 800}"
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+ROOT="$(cd "$HERE/.." && pwd)"
+RESULTS="$HERE/results/service-modes.jsonl"
+mkdir -p "$HERE/results"
+
+(cd "$ROOT/digitalgamestore" && sh ./gradlew -q bootJar)
+(cd "$ROOT/digitalgamestoreclientapplication" && sh ./gradlew -q bootJar)
+(cd "$HERE" && sh ./gradlew -q installDist)
+
+API_JAR="$(ls "$ROOT"/digitalgamestore/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+CLIENT_JAR="$(ls "$ROOT"/digitalgamestoreclientapplication/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+
+wait_for() {
+    for _ in $(seq 1 120); do
+        curl -fs "$1" > /dev/null && return 0
+        sleep 1
+    done
+    echo "Timed out waiting for $1" >&2
+    return 1
+}
+
+# Every benchmark user logs in from this host, so lift the per-address login limit
+java -jar "$API_JAR" \
+    --security.login.address.capacity=1000000 --spring.jpa.show-sql=false > "$HERE/results/api-service-modes.log" 2>&1 &
+API_PID=$!
+trap 'kill $API_PID 2>/dev/null || true' EXIT
+wait_for http://localhost:8080/actuator/health
+
+for MODE in blocking reactive; do
+    java -jar "$CLIENT_JAR" --api.client.mode="$MODE" \
+        --server.tomcat.threads.max=32 --server.tomcat.threads.min-spare=32 \
+        --api.client.fan-out.core-threads=16 --api.client.fan-out.max-threads=16 \
+        --api.client.reactive.event-loop-threads=4 > "$HERE/results/client-$MODE.log" 2>&1 &
+    CLIENT_PID=$!
+    trap 'kill $API_PID $CLIENT_PID 2>/dev/null || true' EXIT
+    wait_for http://localhost:9081/actuator/health
+
+    for CONCURRENCY in $LEVELS; do
+        "$HERE/build/install/digitalgamestoreloadtest/bin/digitalgamestoreloadtest" \
+            --target=http://localhost:8081 --flow=browse --concurrency="$CONCURRENCY" \
+            --warmup=PT10S --duration="$DURATION" --label="$MODE" --output="$RESULTS"
+    done
+
+    kill $CLIENT_PID
+    wait $CLIENT_PID 2>/dev/null || true
+done
+
+echo "Highest concurrency without errors and with p99 <= ${SLO_MILLIS} ms:"
+for MODE in blocking reactive; do
+    grep "\"label\":\"$MODE\"" "$RESULTS" | awk -v mode="$MODE" -v slo="$SLO_MILLIS" -F'[:,]' '
+        {
+            for (i = 1; i < NF; i++) {
+                if ($i == "\"concurrency\"") concurrency = $(i + 1)
+                if ($i == "\"errors\"") errors = $(i + 1)
+                if ($i == "\"p99Millis\"") p99 = $(i + 1)
+            }
+            if (errors == 0 && p99 <= slo && concurrency > best) best = concurrency
+        }
+        END { printf "  %-8s %s\n", mode, best ? best : "none" }'
+done
+echo "Results appended to $RESULTS"
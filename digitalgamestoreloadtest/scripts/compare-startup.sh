@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Compares cold start of both applications with and without Spring AOT and AppCDS (gradle fastStart).
+# Each application is started from scratch --runs times per mode and timed until its first successful
+# response; one JSON line per application and mode is appended to results/startup.jsonl.
+#
+# Requires the MariaDB container (docker compose -f digitalgamestore/docker-compose.yml up -d mariadb):
+# the API's training run and every measured start migrate and validate the schema.
+#
+# Usage: scripts/compare-startup.sh [runs] [label]
+set -euo pipefail
+
+RUNS="${1:-5}"
+LABEL="${2:-$(git -C "$(dirname "$0")" rev-parse --short HEAD 2>/dev/null || echo default)}"
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+ROOT="$(cd "$HERE/.." && pwd)"
+RESULTS="$HERE/results/startup.jsonl"
+mkdir -p "$HERE/results"
+
+(cd "$ROOT/digitalgamestore" && sh ./gradlew -q fastStart)
+(cd "$ROOT/digitalgamestoreclientapplication" && sh ./gradlew -q fastStart)
+(cd "$HERE" && sh ./gradlew -q installDist)
+
+API_JAR="$(ls "$ROOT"/digitalgamestore/build/libs/*-SNAPSHOT.jar | grep -v plain | grep -v jmh)"
+CLIENT_JAR="$(ls "$ROOT"/digitalgamestoreclientapplication/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+
+# The API's first response reads the catalogue through Hibernate; the client's renders a Thymeleaf page
+java -cp "$HERE/build/install/digitalgamestoreloadtest/lib/*" com.dws.loadtest.StartupBenchmark \
+    --jar="$API_JAR" --fast-start-dir="$ROOT/digitalgamestore/build/fast-start" \
+    --url="http://localhost:8080/api/games/catalog?size=1" --app-args="--spring.jpa.show-sql=false" \
+    --runs="$RUNS" --label="api-$LABEL" --output="$RESULTS"
+java -cp "$HERE/build/install/digitalgamestoreloadtest/lib/*" com.dws.loadtest.StartupBenchmark \
+    --jar="$CLIENT_JAR" --fast-start-dir="$ROOT/digitalgamestoreclientapplication/build/fast-start" \
+    --url="http://localhost:8081/login" \
+    --runs="$RUNS" --label="client-$LABEL" --output="$RESULTS"
+
+echo "Results appended to $RESULTS"
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread execution of both applications.
+# For each mode it starts the API and the web client from their boot jars, runs the browse
+# and purchase flows at the given concurrency, and appends one JSON line per run to
+# results/virtual-threads.jsonl.
+#
+# Requires the MariaDB container (docker compose -f digitalgamestore/docker-compose.yml up -d mariadb)
+# with the game catalogue loaded from InsertIntoGame.sql.
+#
+# Usage: scripts/compare-virtual-threads.sh [concurrency] [duration]
+set -euo pipefail
+
+CONCURRENCY="${1:-400}"
+DURATION="${2:-PT60S}"
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+ROOT="$(cd "$HERE/.." && pwd)"
+RESULTS="$HERE/results/virtual-threads.jsonl"
+mkdir -p "$HERE/results"
+
+(cd "$ROOT/digitalgamestore" && sh ./gradlew -q bootJar)
+(cd "$ROOT/digitalgamestoreclientapplication" && sh ./gradlew -q bootJar)
+(cd "$HERE" && sh ./gradlew -q installDist)
+
+API_JAR="$(ls "$ROOT"/digitalgamestore/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+CLIENT_JAR="$(ls "$ROOT"/digitalgamestoreclientapplication/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+
+wait_for() {
+    for _ in $(seq 1 120); do
+        curl -fs "$1" > /dev/null && return 0
+        sleep 1
+    done
+    echo "Timed out waiting for $1" >&2
+    return 1
+}
+
+for VIRTUAL in false true; do
+    LABEL=$([ "$VIRTUAL" = true ] && echo virtual || echo platform)
+    # Every benchmark user logs in from this host, so lift the per-address login limit
+    VIRTUAL_THREADS=$VIRTUAL java -jar "$API_JAR" \
+        --security.login.address.capacity=1000000 --spring.jpa.show-sql=false > "$HERE/results/api-$LABEL.log" 2>&1 &
+    API_PID=$!
+    VIRTUAL_THREADS=$VIRTUAL java -jar "$CLIENT_JAR" > "$HERE/results/client-$LABEL.log" 2>&1 &
+    CLIENT_PID=$!
+    trap 'kill $API_PID $CLIENT_PID 2>/dev/null || true' EXIT
+    wait_for http://localhost:8080/actuator/health
+    wait_for http://localhost:9081/actuator/health
+
+    for FLOW in browse purchase; do
+        "$HERE/build/install/digitalgamestoreloadtest/bin/digitalgamestoreloadtest" \
+            --target=http://localhost:8081 --flow="$FLOW" --concurrency="$CONCURRENCY" \
+            --warmup=PT15S --duration="$DURATION" --label="$LABEL" --output="$RESULTS"
+    done
+
+    curl -fs http://localhost:9081/actuator/pinning > "$HERE/results/pinning-client-$LABEL.json" || true
+    curl -fs http://localhost:8080/actuator/pinning > "$HERE/results/pinning-api-$LABEL.json" || true
+    kill $API_PID $CLIENT_PID
+    wait $API_PID $CLIENT_PID 2>/dev/null || true
+done
+
+echo "Results appended to $RESULTS"
@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Runs the web and API journeys (JourneyLoadTest) at a fixed arrival rate against freshly started
+# applications and writes one HdrHistogram report per journey to results/journeys-<journey>-<label>.json.
+# Compare two releases with: ./gradlew journeyReportDiff -PbenchArgs="<baseline.json> <candidate.json>"
+#
+# Backends:
+#   bench    the API's embedded MariaDB (bench profile); generates a dataset on first use and runs the
+#            journeys as its generated users, so profiles come with realistic purchase histories
+#   mariadb  the Docker Compose MariaDB (docker compose -f digitalgamestore/docker-compose.yml up -d mariadb)
+#            with the catalogue loaded; the journeys register their own users
+#
+# Usage: scripts/run-journeys.sh [bench|mariadb] [journeys-per-second] [duration] [label]
+set -euo pipefail
+
+BACKEND="${1:-bench}"
+RATE="${2:-50}"
+DURATION="${3:-PT60S}"
+LABEL="${4:-$(git -C "$(dirname "$0")" rev-parse --short HEAD 2>/dev/null || echo default)}"
+HERE="$(cd "$(dirname "$0")/.." && pwd)"
+ROOT="$(cd "$HERE/.." && pwd)"
+mkdir -p "$HERE/results"
+
+(cd "$ROOT/digitalgamestoreclientapplication" && sh ./gradlew -q bootJar)
+(cd "$HERE" && sh ./gradlew -q installDist)
+CLIENT_JAR="$(ls "$ROOT"/digitalgamestoreclientapplication/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+
+wait_for() {
+    for _ in $(seq 1 180); do
+        curl -fs "$1" > /dev/null && return 0
+        sleep 1
+    done
+    echo "Timed out waiting for $1" >&2
+    return 1
+}
+
+# Every journey logs in from this host, as one of a small pool of users
+API_ARGS="--security.login.address.capacity=1000000 --security.login.username.capacity=1000000 --spring.jpa.show-sql=false"
+if [ "$BACKEND" = bench ]; then
+    if [ ! -d "$ROOT/digitalgamestore/build/bench-db" ]; then
+        (cd "$ROOT/digitalgamestore" && sh ./gradlew -q generateData --args='--spring.profiles.active=bench')
+    fi
+    USERS="--user-source=generated"
+    (cd "$ROOT/digitalgamestore" && exec sh ./gradlew -q bootRun --args="--spring.profiles.active=bench $API_ARGS") \
+        > "$HERE/results/api-journeys.log" 2>&1 &
+else
+    USERS="--user-source=register"
+    (cd "$ROOT/digitalgamestore" && sh ./gradlew -q bootJar)
+    API_JAR="$(ls "$ROOT"/digitalgamestore/build/libs/*-SNAPSHOT.jar | grep -v plain)"
+    # shellcheck disable=SC2086
+    java -jar "$API_JAR" $API_ARGS > "$HERE/results/api-journeys.log" 2>&1 &
+fi
+API_PID=$!
+trap 'pkill -P $API_PID 2>/dev/null || true; kill $API_PID 2>/dev/null || true' EXIT
+wait_for http://localhost:8080/actuator/health
+
+java -jar "$CLIENT_JAR" > "$HERE/results/client-journeys.log" 2>&1 &
+CLIENT_PID=$!
+trap 'kill $CLIENT_PID 2>/dev/null || true; pkill -P $API_PID 2>/dev/null || true; kill $API_PID 2>/dev/null || true' EXIT
+wait_for http://localhost:9081/actuator/health
+
+for JOURNEY in web api; do
+    java -cp "$HERE/build/install/digitalgamestoreloadtest/lib/*" com.dws.loadtest.JourneyLoadTest \
+        --journey="$JOURNEY" --rate="$RATE" --duration="$DURATION" "$USERS" --label="$LABEL" \
+        --output="$HERE/results/journeys-$JOURNEY-$LABEL.json"
+done
@@ -0,0 +1,239 @@
+package com.dws.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-model benchmark of the web client's browse and purchase flows.
+ * Each of --concurrency workers logs in as its own freshly registered user and repeats
+ * its flow back to back; throughput and latency percentiles are reported for the
+ * measurement period that follows the warmup.
+ *
+ * browse:   GET /games, then GET /games/{id} of a random game
+ * purchase: POST /transactions/purchase/{id} of a random game, then GET /users/profile
+ *
+ * Usage: FlowBenchmark --target=http://localhost:8081 --flow=browse --concurrency=200
+ *                      --warmup=PT15S --duration=PT60S --label=platform --output=results.jsonl
+ */
+public class FlowBenchmark {
+    private static final Pattern GAME_LINK = Pattern.compile("/games/(\\d+)");
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    private final String target;
+
+    FlowBenchmark(String target) {
+        this.target = target;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String target = options.getOrDefault("target", "http://localhost:8081");
+        String flow = options.getOrDefault("flow", "browse");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        String label = options.getOrDefault("label", "default");
+
+        FlowBenchmark benchmark = new FlowBenchmark(target);
+        Result result = benchmark.run(flow, concurrency, warmup, duration, label);
+        System.out.println(result.toJson());
+        if (options.containsKey("output")) {
+            Files.writeString(Path.of(options.get("output")), result.toJson() + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    Result run(String flow, int concurrency, Duration warmup, Duration duration, String label) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> sessions = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            sessions.add(createFundedSession("bench_" + runId + "_" + i));
+        }
+        int[] gameIds = discoverGameIds(sessions.get(0));
+        if (gameIds.length == 0) {
+            throw new IllegalStateException("No games found at " + target + "/games; load InsertIntoGame.sql first");
+        }
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long[][] latencies = new long[concurrency][1 << 16];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        List<Runnable> workers = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            String session = sessions.get(worker);
+            long[] samples = latencies[worker];
+            int index = worker;
+            workers.add(() -> {
+                int count = 0;
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= end) {
+                        break;
+                    }
+                    int gameId = gameIds[ThreadLocalRandom.current().nextInt(gameIds.length)];
+                    boolean ok = "purchase".equals(flow) ? purchase(session, gameId) : browse(session, gameId);
+                    long finished = System.nanoTime();
+                    if (start >= warmupEnd && finished <= end) {
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                        if (count < samples.length) {
+                            samples[count++] = finished - start;
+                        }
+                    }
+                }
+                counts[index] = count;
+            });
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            workers.forEach(executor::submit);
+        }
+
+        long total = Arrays.stream(counts).sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (int worker = 0; worker < concurrency; worker++) {
+            System.arraycopy(latencies[worker], 0, all, offset, counts[worker]);
+            offset += counts[worker];
+        }
+        Arrays.sort(all);
+        return new Result(label, flow, concurrency, total, errors.get(),
+            total / (double) duration.toSeconds(), percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+    }
+
+    private boolean browse(String session, int gameId) {
+        return send(get("/games", session)) == 200
+            && send(get("/games/" + gameId, session)) == 200;
+    }
+
+    private boolean purchase(String session, int gameId) {
+        HttpResponse<String> response = exchange(post("/transactions/purchase/" + gameId, session, Map.of()));
+        boolean purchased = response != null && response.statusCode() == 302
+            && response.headers().firstValue("Location").orElse("").endsWith("/users/profile");
+        return send(get("/users/profile", session)) == 200 && purchased;
+    }
+
+    private String createFundedSession(String username) throws IOException {
+        exchange(post("/users/register", null, Map.of(
+            "username", username, "email", username + "@bench.local", "password", "bench")));
+        HttpResponse<String> login = exchange(post("/login", null, Map.of("username", username, "password", "bench")));
+        String cookie = login == null ? null : login.headers().firstValue("Set-Cookie")
+            .map(value -> value.split(";", 2)[0])
+            .orElse(null);
+        // A new session's redirect carries ;jsessionid=... until the container sees the cookie
+        String location = login == null ? "" : login.headers().firstValue("Location").orElse("").split(";", 2)[0];
+        if (cookie == null || !location.endsWith("/games")) {
+            throw new IOException("Login failed for " + username + "; is the API login rate limit raised?");
+        }
+        exchange(post("/users/profile", cookie, Map.of("action", "addFunds", "amount", "100000000")));
+        return cookie;
+    }
+
+    private int[] discoverGameIds(String session) {
+        HttpResponse<String> response = exchange(get("/games", session));
+        LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        if (response != null) {
+            Matcher matcher = GAME_LINK.matcher(response.body());
+            while (matcher.find()) {
+                ids.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private HttpRequest get(String path, String session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET();
+        if (session != null) {
+            builder.header("Cookie", session);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String session, Map<String, String> form) {
+        StringBuilder body = new StringBuilder();
+        form.forEach((key, value) -> body.append(body.isEmpty() ? "" : "&")
+            .append(URLEncoder.encode(key, StandardCharsets.UTF_8)).append('=')
+            .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (session != null) {
+            builder.header("Cookie", session);
+        }
+        return builder.build();
+    }
+
+    private int send(HttpRequest request) {
+        HttpResponse<String> response = exchange(request);
+        return response == null ? -1 : response.statusCode();
+    }
+
+    private HttpResponse<String> exchange(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    record Result(String label, String flow, int concurrency, long requests, long errors,
+                  double throughputPerSecond, double p50Millis, double p99Millis, double p999Millis) {
+        String toJson() {
+            return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"flow\":\"%s\",\"concurrency\":%d,\"flows\":%d,\"errors\":%d,"
+                    + "\"throughputPerSecond\":%.1f,\"p50Millis\":%.2f,\"p99Millis\":%.2f,\"p999Millis\":%.2f}",
+                label, flow, concurrency, requests, errors, throughputPerSecond, p50Millis, p99Millis, p999Millis);
+        }
+    }
+}
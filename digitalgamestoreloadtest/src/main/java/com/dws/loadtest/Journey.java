@@ -0,0 +1,193 @@
+package com.dws.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * One user's visit, as a fixed sequence of HTTP steps that each succeed or fail.
+ * A journey stops at its first failed step. Implementations exist for the web client
+ * (what a browser does) and for the API directly (what the web client does on its behalf).
+ */
+abstract class Journey {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    protected final HttpClient http = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    protected final String target;
+
+    Journey(String target) {
+        this.target = target;
+    }
+
+    /**
+     * @param name "web" (through the web client) or "api" (directly against the API)
+     * @param target Base URL of the web client or of the API
+     * @return The journey
+     */
+    static Journey named(String name, String target) {
+        return switch (name) {
+            case "web" -> new WebJourney(target);
+            case "api" -> new ApiJourney(target);
+            default -> throw new IllegalArgumentException("Unknown journey " + name + "; use web or api");
+        };
+    }
+
+    /**
+     * @return Names of the steps, in order
+     */
+    abstract List<String> steps();
+
+    /**
+     * Runs the journey, timing every step.
+     *
+     * @param user The user making the visit
+     * @param gameId The game they look at and buy
+     * @param lease True to lease the game instead of purchasing it
+     * @param timer Receives the duration and outcome of each step
+     * @return True if every step succeeded
+     */
+    abstract boolean run(LoadTestUsers.User user, int gameId, boolean lease, StepTimer timer);
+
+    /**
+     * Receives the outcome of each step as it completes.
+     */
+    @FunctionalInterface
+    interface StepTimer {
+        void step(int index, long startNanos, long endNanos, boolean ok);
+    }
+
+    /**
+     * Times one step and reports it.
+     *
+     * @return The step's outcome
+     */
+    protected static boolean timed(StepTimer timer, int index, StepCall call) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = call.call();
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        timer.step(index, start, System.nanoTime(), ok);
+        return ok;
+    }
+
+    @FunctionalInterface
+    protected interface StepCall {
+        boolean call() throws IOException, InterruptedException;
+    }
+
+    protected HttpResponse<String> get(String path, String cookie) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path)).timeout(TIMEOUT).GET();
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected HttpResponse<String> postForm(String path, String cookie, Map<String, String> form)
+            throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        form.forEach((key, value) -> body.append(body.isEmpty() ? "" : "&")
+            .append(URLEncoder.encode(key, StandardCharsets.UTF_8)).append('=')
+            .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected HttpResponse<String> postJson(String path, String json) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected static String location(HttpResponse<String> response) {
+        // A new session's redirect carries ;jsessionid=... until the container sees the cookie
+        return response.headers().firstValue("Location").orElse("").split(";", 2)[0];
+    }
+
+    /**
+     * Browser journey through the web client: log in, browse the catalogue, open a game,
+     * buy or lease it and view the profile.
+     */
+    static final class WebJourney extends Journey {
+        WebJourney(String target) {
+            super(target);
+        }
+
+        @Override
+        List<String> steps() {
+            return List.of("login", "games", "game", "purchase", "profile");
+        }
+
+        @Override
+        boolean run(LoadTestUsers.User user, int gameId, boolean lease, StepTimer timer) {
+            String[] cookie = new String[1];
+            return timed(timer, 0, () -> {
+                    HttpResponse<String> response = postForm("/login", null,
+                        Map.of("username", user.username(), "password", user.password()));
+                    cookie[0] = response.headers().firstValue("Set-Cookie")
+                        .map(value -> value.split(";", 2)[0]).orElse(null);
+                    return response.statusCode() == 302 && cookie[0] != null && location(response).endsWith("/games");
+                })
+                && timed(timer, 1, () -> get("/games", cookie[0]).statusCode() == 200)
+                && timed(timer, 2, () -> get("/games/" + gameId, cookie[0]).statusCode() == 200)
+                && timed(timer, 3, () -> {
+                    HttpResponse<String> response = postForm(
+                        "/transactions/" + (lease ? "lease/" : "purchase/") + gameId, cookie[0], Map.of());
+                    return response.statusCode() == 302 && location(response).endsWith("/users/profile");
+                })
+                && timed(timer, 4, () -> get("/users/profile", cookie[0]).statusCode() == 200);
+        }
+    }
+
+    /**
+     * The same visit made directly against the API, as the web client would make it.
+     */
+    static final class ApiJourney extends Journey {
+        ApiJourney(String target) {
+            super(target);
+        }
+
+        @Override
+        List<String> steps() {
+            return List.of("login", "catalog", "game", "transaction", "profile");
+        }
+
+        @Override
+        boolean run(LoadTestUsers.User user, int gameId, boolean lease, StepTimer timer) {
+            return timed(timer, 0, () -> postJson("/api/users/login", String.format(
+                    "{\"username\":\"%s\",\"password\":\"%s\"}", user.username(), user.password())).statusCode() == 200)
+                && timed(timer, 1, () -> get("/api/games/catalog?page=0&size=50", null).statusCode() == 200)
+                && timed(timer, 2, () -> get("/api/games/" + gameId, null).statusCode() == 200)
+                && timed(timer, 3, () -> postJson("/api/transactions", String.format(
+                    "{\"userId\":%d,\"gameId\":%d,\"transactionType\":\"%s\"}",
+                    user.id(), gameId, lease ? "Lease" : "Purchase")).statusCode() / 100 == 2)
+                && timed(timer, 4, () -> get("/api/users/" + user.id() + "/profile", null).statusCode() == 200);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.dws.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dws.shared.sampling.ZipfSampler;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test of whole user journeys, through the web client or directly against the API.
+ * Journeys start at a fixed average rate (Poisson or evenly spaced arrivals) whether or not earlier
+ * ones have finished, as real visitors do. Journey latency is measured from each journey's intended
+ * start, so time spent waiting because the system (or the generator) fell behind is counted rather
+ * than omitted: coordinated omission is corrected by construction. The uncorrected latency, measured
+ * from the actual start, and the schedule lag between the two are reported alongside it, as is the
+ * service time of every step. Failed journeys have their own histogram, also from the intended start,
+ * so a server that fails slowly (timeouts) is not reported as fast by leaving them out. Histograms are HdrHistograms; the JSON report embeds them compressed,
+ * so reports can be re-analysed or merged later, and JourneyReportDiff compares two reports.
+ *
+ * Journeys (see Journey): web = login, games, game, purchase or lease, profile through the web client;
+ * api = login, catalog, game, transaction, profile against the API.
+ * Games are chosen with Zipfian popularity; --lease-ratio of the transactions are leases.
+ * Users are registered for the run (--user-source=register) or taken from the API's generated
+ * dataset (--user-source=generated, gen_user_1..N). Login rate limits must be raised on the API.
+ *
+ * Usage: JourneyLoadTest --journey=web --target=http://localhost:8081 --api=http://localhost:8080
+ *                        --rate=50 --arrivals=poisson --warmup=PT15S --duration=PT60S --max-in-flight=5000
+ *                        --users=200 --user-source=register --password=loadtest --games=1000
+ *                        --zipf-exponent=1.0 --lease-ratio=0.3 --label=default --output=results/journeys.json
+ */
+public class JourneyLoadTest {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Journey journey;
+    private final List<LoadTestUsers.User> users;
+    private final int[] gameIds;
+    private final ZipfSampler popularity;
+    private final double leaseRatio;
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder uncorrected = new Recorder(3);
+    private final Recorder scheduleLag = new Recorder(3);
+    private final Recorder failures = new Recorder(3);
+    private final Recorder[] steps;
+    private final AtomicLong[] stepErrors;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    JourneyLoadTest(Journey journey, List<LoadTestUsers.User> users, int[] gameIds, double zipfExponent,
+                    double leaseRatio) {
+        this.journey = journey;
+        this.users = users;
+        this.gameIds = gameIds;
+        this.popularity = new ZipfSampler(gameIds.length, zipfExponent);
+        this.leaseRatio = leaseRatio;
+        int stepCount = journey.steps().size();
+        this.steps = new Recorder[stepCount];
+        this.stepErrors = new AtomicLong[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            steps[i] = new Recorder(3);
+            stepErrors[i] = new AtomicLong();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = FlowBenchmark.parse(args);
+        String journeyName = options.getOrDefault("journey", "web");
+        String api = options.getOrDefault("api", "http://localhost:8080");
+        String target = options.getOrDefault("target", "web".equals(journeyName) ? "http://localhost:8081" : api);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        boolean poisson = !"constant".equals(options.getOrDefault("arrivals", "poisson"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "5000"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "200"));
+        String userSource = options.getOrDefault("user-source", "register");
+        String password = options.getOrDefault("password", "generated".equals(userSource) ? "password" : "loadtest");
+        int gameCount = Integer.parseInt(options.getOrDefault("games", "1000"));
+        double zipfExponent = Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0"));
+        double leaseRatio = Double.parseDouble(options.getOrDefault("lease-ratio", "0.3"));
+        String label = options.getOrDefault("label", "default");
+        Path output = Path.of(options.getOrDefault("output", "results/journeys-" + journeyName + "-" + label + ".json"));
+
+        LoadTestUsers setup = new LoadTestUsers(api);
+        List<LoadTestUsers.User> users = "generated".equals(userSource)
+            ? setup.generated(userCount, password)
+            : setup.register(userCount, password);
+        int[] gameIds = setup.gameIds(gameCount);
+        if (gameIds.length == 0) {
+            throw new IllegalStateException("No games found at " + api + "; load a catalogue first");
+        }
+
+        Journey journey = Journey.named(journeyName, target);
+        JourneyLoadTest test = new JourneyLoadTest(journey, users, gameIds, zipfExponent, leaseRatio);
+        Instant startedAt = Instant.now();
+        test.run(rate, poisson, warmup, duration, maxInFlight);
+
+        Report report = test.report(new Settings(label, journeyName, target, poisson ? "poisson" : "constant", rate,
+            warmup.toSeconds(), duration.toSeconds(), maxInFlight, users.size(), gameIds.length, zipfExponent,
+            leaseRatio, startedAt.toString()), duration);
+        System.out.print(report.summary());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        System.out.println("Report written to " + output);
+    }
+
+    void run(double rate, boolean poisson, Duration warmup, Duration duration, int maxInFlight)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long warmupEnd = start + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        double meanGap = NANOS_PER_SECOND / rate;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = start;
+            while (next < end) {
+                long now;
+                while ((now = System.nanoTime()) < next) {
+                    LockSupport.parkNanos(next - now);
+                }
+                // When the limit is reached arrivals wait here; their latency still counts from the intended start
+                inFlight.acquire();
+                long intended = next;
+                boolean measured = intended >= warmupEnd;
+                executor.submit(() -> {
+                    try {
+                        visit(intended, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                double gap = poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGap : meanGap;
+                next += (long) gap;
+            }
+        }
+    }
+
+    private void visit(long intendedStart, boolean measured) {
+        long actualStart = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoadTestUsers.User user = users.get(random.nextInt(users.size()));
+        int gameId = gameIds[popularity.sample(random)];
+        boolean lease = random.nextDouble() < leaseRatio;
+        boolean ok = journey.run(user, gameId, lease, (index, stepStart, stepEnd, stepOk) -> {
+            if (!measured) {
+                return;
+            }
+            if (stepOk) {
+                steps[index].recordValue(stepEnd - stepStart);
+            } else {
+                stepErrors[index].incrementAndGet();
+            }
+        });
+        long finished = System.nanoTime();
+        if (!measured) {
+            return;
+        }
+        started.incrementAndGet();
+        scheduleLag.recordValue(actualStart - intendedStart);
+        if (ok) {
+            completed.incrementAndGet();
+            corrected.recordValue(finished - intendedStart);
+            uncorrected.recordValue(finished - actualStart);
+        } else {
+            failed.incrementAndGet();
+            failures.recordValue(finished - intendedStart);
+        }
+    }
+
+    Report report(Settings settings, Duration duration) {
+        Histogram correctedHistogram = corrected.getIntervalHistogram();
+        Histogram uncorrectedHistogram = uncorrected.getIntervalHistogram();
+        Histogram lagHistogram = scheduleLag.getIntervalHistogram();
+        Histogram failureHistogram = failures.getIntervalHistogram();
+        Map<String, String> histograms = new LinkedHashMap<>();
+        histograms.put("corrected", encode(correctedHistogram));
+        histograms.put("uncorrected", encode(uncorrectedHistogram));
+        histograms.put("scheduleLag", encode(lagHistogram));
+        histograms.put("failed", encode(failureHistogram));
+        List<Step> stepReports = new ArrayList<>();
+        for (int i = 0; i < steps.length; i++) {
+            Histogram histogram = steps[i].getIntervalHistogram();
+            String name = journey.steps().get(i);
+            stepReports.add(new Step(name, histogram.getTotalCount(), stepErrors[i].get(), Latency.of(histogram)));
+            histograms.put("step." + name, encode(histogram));
+        }
+        return new Report(settings,
+            new Journeys(started.get(), completed.get(), failed.get(), completed.get() / (double) duration.toSeconds()),
+            Latency.of(correctedHistogram), Latency.of(uncorrectedHistogram), Latency.of(lagHistogram),
+            Latency.of(failureHistogram), stepReports, histograms);
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    record Settings(String label, String journey, String target, String arrivals, double ratePerSecond,
+                    long warmupSeconds, long durationSeconds, int maxInFlight, int users, int games,
+                    double zipfExponent, double leaseRatio, String startedAt) {
+    }
+
+    record Journeys(long started, long completed, long errors, double throughputPerSecond) {
+    }
+
+    record Step(String name, long count, long errors, Latency latency) {
+    }
+
+    /**
+     * Percentiles of a histogram of nanosecond values, in milliseconds.
+     */
+    record Latency(long count, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+                   double p999Millis, double maxMillis) {
+        static Latency of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Latency(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+            }
+            return new Latency(histogram.getTotalCount(), histogram.getMean() / 1e6,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxValue() / 1e6);
+        }
+    }
+
+    /**
+     * Machine-readable result of one run; HdrHistograms are base64 of their compressed encoding.
+     * latency covers completed journeys, failedLatency failed ones, both from the intended start.
+     */
+    record Report(Settings settings, Journeys journeys, Latency latency, Latency uncorrectedLatency,
+                  Latency scheduleLag, Latency failedLatency, List<Step> steps, Map<String, String> histograms) {
+        String summary() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%s journey at %.1f/s (%s): %d completed, %d failed, %.1f journeys/s%n",
+                settings.journey(), settings.ratePerSecond(), settings.arrivals(), journeys.completed(),
+                journeys.errors(), journeys.throughputPerSecond()));
+            text.append(String.format(Locale.ROOT, "%-20s %8s %8s %10s %10s %10s %10s %10s%n",
+                "", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            line(text, "journey", journeys.completed(), journeys.errors(), latency);
+            line(text, "  uncorrected", uncorrectedLatency.count(), 0, uncorrectedLatency);
+            line(text, "  schedule lag", scheduleLag.count(), 0, scheduleLag);
+            line(text, "  failed", failedLatency.count(), 0, failedLatency);
+            for (Step step : steps) {
+                line(text, "step " + step.name(), step.count(), step.errors(), step.latency());
+            }
+            return text.toString();
+        }
+
+        private static void line(StringBuilder text, String name, long count, long errors, Latency latency) {
+            text.append(String.format(Locale.ROOT, "%-20s %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, count,
+                errors, latency.p50Millis(), latency.p90Millis(), latency.p99Millis(), latency.p999Millis(),
+                latency.maxMillis()));
+        }
+    }
+}
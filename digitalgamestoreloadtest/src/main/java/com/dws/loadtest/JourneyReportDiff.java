@@ -0,0 +1,74 @@
+package com.dws.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Compares two JourneyLoadTest reports, typically the previous release against the current build
+ * under the same settings. Prints journey and per-step latency percentiles side by side and exits
+ * with status 1 if the corrected journey p99, or any step's p99, got worse by more than the threshold,
+ * or if the candidate had failed journeys the baseline did not.
+ *
+ * Usage: JourneyReportDiff baseline.json candidate.json [threshold, default 0.10]
+ */
+public class JourneyReportDiff {
+    private static final String[] PERCENTILES = {"p50Millis", "p99Millis", "p999Millis"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JourneyReportDiff baseline.json candidate.json [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode baseline = mapper.readTree(new File(args[0]));
+        JsonNode candidate = mapper.readTree(new File(args[1]));
+
+        if (!baseline.path("settings").path("journey").equals(candidate.path("settings").path("journey"))
+                || baseline.path("settings").path("ratePerSecond").asDouble()
+                    != candidate.path("settings").path("ratePerSecond").asDouble()) {
+            System.out.println("Warning: the reports use different journeys or arrival rates");
+        }
+        System.out.printf(Locale.ROOT, "%-20s %-10s %10s %10s %8s%n", "", "", "baseline", "candidate", "change");
+        boolean regressed = compare("journey", baseline.path("latency"), candidate.path("latency"), threshold);
+        for (JsonNode step : candidate.path("steps")) {
+            String name = step.path("name").asText();
+            for (JsonNode baseStep : baseline.path("steps")) {
+                if (baseStep.path("name").asText().equals(name)) {
+                    regressed |= compare("step " + name, baseStep.path("latency"), step.path("latency"), threshold);
+                }
+            }
+        }
+        long baseErrors = baseline.path("journeys").path("errors").asLong();
+        long errors = candidate.path("journeys").path("errors").asLong();
+        System.out.printf(Locale.ROOT, "%-20s %-10s %10d %10d%n", "journey", "errors", baseErrors, errors);
+        System.out.printf(Locale.ROOT, "%-20s %-10s %10.1f %10.1f%n", "journey", "per second",
+            baseline.path("journeys").path("throughputPerSecond").asDouble(),
+            candidate.path("journeys").path("throughputPerSecond").asDouble());
+        if (errors > 0 && baseErrors == 0) {
+            regressed = true;
+        }
+        System.out.println(regressed
+            ? String.format(Locale.ROOT, "REGRESSION: p99 worse by more than %.0f%% or new errors", threshold * 100)
+            : "No regression");
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static boolean compare(String name, JsonNode baseline, JsonNode candidate, double threshold) {
+        boolean regressed = false;
+        for (String percentile : PERCENTILES) {
+            double before = baseline.path(percentile).asDouble();
+            double after = candidate.path(percentile).asDouble();
+            double change = (after - before) / before;
+            boolean worse = "p99Millis".equals(percentile) && change > threshold;
+            regressed |= worse;
+            System.out.printf(Locale.ROOT, "%-20s %-10s %10.2f %10.2f %+7.1f%%%s%n", name, percentile.replace("Millis", ""),
+                before, after, 100 * change, worse ? "  REGRESSION" : "");
+        }
+        return regressed;
+    }
+}
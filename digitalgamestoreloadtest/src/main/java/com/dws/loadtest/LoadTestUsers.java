@@ -0,0 +1,111 @@
+package com.dws.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares the users and games a load test works with, through the API.
+ * Users are either registered for the run (lt_&lt;run&gt;_&lt;n&gt;) or taken from a dataset produced by the
+ * API's generateData task (gen_user_&lt;id&gt;, so they come with a purchase history); either way their
+ * balance is raised so purchases never fail for lack of funds.
+ */
+class LoadTestUsers {
+    private static final double BALANCE = 1_000_000_000;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String api;
+
+    LoadTestUsers(String api) {
+        this.api = api;
+    }
+
+    record User(int id, String username, String password) {
+    }
+
+    /**
+     * Registers funded users for this run.
+     *
+     * @param count Number of users
+     * @param password Password to give them
+     * @return The users
+     */
+    List<User> register(int count, String password) throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "lt_" + run + "_" + i;
+            ObjectNode user = mapper.createObjectNode()
+                .put("username", username)
+                .put("email", username + "@loadtest.local")
+                .put("password", password)
+                .put("accountBalance", BALANCE);
+            JsonNode created = send("POST", "/api/users", user);
+            users.add(new User(created.path("userId").asInt(), username, password));
+        }
+        return users;
+    }
+
+    /**
+     * Funds the first users of a generated dataset (ids 1..count).
+     *
+     * @param count Number of users
+     * @param password The dataset's user password (datagen.user-password)
+     * @return The users
+     */
+    List<User> generated(int count, String password) throws IOException, InterruptedException {
+        List<User> users = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            ObjectNode user = (ObjectNode) send("GET", "/api/users/" + id, null);
+            user.put("accountBalance", BALANCE);
+            send("PUT", "/api/users/" + id, user);
+            users.add(new User(id, user.path("username").asText(), password));
+        }
+        return users;
+    }
+
+    /**
+     * Lists the IDs of the catalogue's games, in catalogue order.
+     *
+     * @param max Maximum number of IDs to return
+     * @return Game IDs
+     */
+    int[] gameIds(int max) throws IOException, InterruptedException {
+        List<Integer> ids = new ArrayList<>();
+        for (int page = 0; ids.size() < max; page++) {
+            JsonNode games = send("GET", "/api/games/catalog?size=100&page=" + page, null).path("games");
+            if (games.isEmpty()) {
+                break;
+            }
+            games.forEach(game -> ids.add(game.path("gameId").asInt()));
+        }
+        return ids.stream().limit(max).mapToInt(Integer::intValue).toArray();
+    }
+
+    private JsonNode send(String method, String path, JsonNode body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(api + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept", "application/json");
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(method + " " + path + " returned " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,196 @@
+package com.dws.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures cold start of one of the applications in each launch mode: the time from starting
+ * the JVM to the first successful response from --url, over --runs fresh processes per mode.
+ *
+ * jar:     java -jar the boot jar
+ * aot:     the boot jar with its AOT-processed context (-Dspring.aot.enabled=true)
+ * cds:     the extracted jar with the AppCDS archive of gradle fastStart
+ * aot-cds: both
+ * native:  the GraalVM native executable of gradle nativeCompile (--native)
+ *
+ * The resident set size of the process is read right after its first response (Linux only).
+ *
+ * Usage: StartupBenchmark --jar=../digitalgamestore/build/libs/digitalgamestore-0.0.1-SNAPSHOT.jar
+ *                         --fast-start-dir=../digitalgamestore/build/fast-start
+ *                         --url=http://localhost:8080/api/games/catalog?size=1 --runs=5
+ *                         --native=../digitalgamestore/build/native/nativeCompile/digitalgamestore
+ *                         --modes=jar,aot,cds,aot-cds,native --app-args="--spring.jpa.show-sql=false"
+ *                         --label=default --output=results/startup.jsonl
+ */
+public class StartupBenchmark {
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+    private final Path jar;
+    private final Path fastStartDir;
+    private final Path executable;
+    private final URI url;
+    private final List<String> appArgs;
+
+    StartupBenchmark(Path jar, Path fastStartDir, Path executable, URI url, List<String> appArgs) {
+        this.jar = jar;
+        this.fastStartDir = fastStartDir;
+        this.executable = executable;
+        this.url = url;
+        this.appArgs = appArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = FlowBenchmark.parse(args);
+        Path jar = Path.of(options.getOrDefault("jar",
+            "../digitalgamestore/build/libs/digitalgamestore-0.0.1-SNAPSHOT.jar"));
+        Path fastStartDir = Path.of(options.getOrDefault("fast-start-dir", "../digitalgamestore/build/fast-start"));
+        Path executable = Path.of(options.getOrDefault("native",
+            "../digitalgamestore/build/native/nativeCompile/digitalgamestore"));
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/api/games/catalog?size=1"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> modes = List.of(options.getOrDefault("modes", "jar,aot,cds,aot-cds").split(","));
+        String appArgs = options.getOrDefault("app-args", "").trim();
+        String label = options.getOrDefault("label", "default");
+
+        StartupBenchmark benchmark = new StartupBenchmark(jar, fastStartDir, executable, url,
+            appArgs.isEmpty() ? List.of() : List.of(appArgs.split(" ")));
+        for (String mode : modes) {
+            Result result = benchmark.run(mode, runs, label);
+            System.out.println(result.toJson());
+            if (options.containsKey("output")) {
+                Files.writeString(Path.of(options.get("output")), result.toJson() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    Result run(String mode, int runs, String label) throws Exception {
+        long[] ready = new long[runs];
+        double[] started = new double[runs];
+        long[] rss = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            Path log = Files.createTempFile("startup-" + mode + "-", ".log");
+            Process process = new ProcessBuilder(command(mode))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+            long start = System.nanoTime();
+            try {
+                ready[run] = awaitFirstResponse(process, start) - start;
+                rss[run] = residentSetKilobytes(process.pid());
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            Matcher matcher = STARTED.matcher(Files.readString(log));
+            started[run] = matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+            Files.delete(log);
+        }
+        Arrays.sort(ready);
+        Arrays.sort(started);
+        Arrays.sort(rss);
+        return new Result(label, mode, runs, ready[runs / 2] / 1_000_000.0, ready[0] / 1_000_000.0,
+            ready[runs - 1] / 1_000_000.0, started[runs / 2], rss[runs / 2] / 1024.0);
+    }
+
+    private List<String> command(String mode) {
+        String application = fastStartDir.resolve(jar.getFileName()).toString();
+        List<String> command = new ArrayList<>();
+        if ("native".equals(mode)) {
+            if (!Files.isExecutable(executable)) {
+                throw new IllegalStateException(executable + " not found; run gradle nativeCompile first");
+            }
+            command.add(executable.toString());
+            command.addAll(appArgs);
+            return command;
+        }
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.contains("cds")) {
+            command.add("-XX:SharedArchiveFile=" + fastStartDir.resolve("application.jsa"));
+        }
+        if (mode.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(switch (mode) {
+            case "jar", "aot" -> jar.toString();
+            case "cds", "aot-cds" -> application;
+            default -> throw new IllegalArgumentException("Unknown mode " + mode + "; use jar, aot, cds, aot-cds or native");
+        });
+        command.addAll(appArgs);
+        if (mode.contains("cds") && !new File(application).isFile()) {
+            throw new IllegalStateException(application + " not found; run gradle fastStart first");
+        }
+        return command;
+    }
+
+    private static long residentSetKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return 0;
+    }
+
+    /**
+     * Polls the URL until it answers with a 2xx status.
+     *
+     * @return System.nanoTime() of the first successful response
+     */
+    private long awaitFirstResponse(Process process, long start) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited with status " + process.exitValue() + " before answering");
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2) {
+                    return System.nanoTime();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IOException("No successful response from " + url + " within " + TIMEOUT);
+    }
+
+    record Result(String label, String mode, int runs, double medianMillis, double minMillis, double maxMillis,
+                  double startedSeconds, double rssMegabytes) {
+        String toJson() {
+            return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"mode\":\"%s\",\"runs\":%d,\"firstResponseMedianMillis\":%.0f,"
+                    + "\"firstResponseMinMillis\":%.0f,\"firstResponseMaxMillis\":%.0f,\"reportedStartSeconds\":%.3f,"
+                    + "\"rssMedianMegabytes\":%.0f}",
+                label, mode, runs, medianMillis, minMillis, maxMillis, startedSeconds, rssMegabytes);
+        }
+    }
+}
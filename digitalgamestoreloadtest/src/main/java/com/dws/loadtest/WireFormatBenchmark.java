@@ -0,0 +1,182 @@
+package com.dws.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compares JSON and Smile, each with and without gzip, for the catalogue payloads the
+ * web client downloads from the API: catalogue search pages (no descriptions) and
+ * full games looked up by ID (with descriptions).
+ * Bytes on the wire are measured from real API responses; decode, encode and gunzip
+ * CPU time per payload is measured locally on those same responses.
+ *
+ * Usage: WireFormatBenchmark --api=http://localhost:8080 --pages=10 --size=50
+ *                            --iterations=500 --label=default --output=results/wire-format.jsonl
+ */
+public class WireFormatBenchmark {
+    private static final String JSON = "application/json";
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper jsonMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ObjectMapper smileMapper = new SmileMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final String api;
+
+    WireFormatBenchmark(String api) {
+        this.api = api;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = FlowBenchmark.parse(args);
+        String api = options.getOrDefault("api", "http://localhost:8080");
+        int pages = Integer.parseInt(options.getOrDefault("pages", "10"));
+        int size = Integer.parseInt(options.getOrDefault("size", "50"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "500"));
+        String label = options.getOrDefault("label", "default");
+
+        WireFormatBenchmark benchmark = new WireFormatBenchmark(api);
+        List<Result> results = benchmark.run(pages, size, iterations, label);
+        for (Result result : results) {
+            System.out.println(result.toJson());
+            if (options.containsKey("output")) {
+                Files.writeString(Path.of(options.get("output")), result.toJson() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    List<Result> run(int pages, int size, int iterations, String label) throws Exception {
+        List<String> catalogPaths = new ArrayList<>();
+        List<String> gamePaths = new ArrayList<>();
+        for (int page = 0; page < pages; page++) {
+            String path = "/api/games/catalog?page=" + page + "&size=" + size;
+            CatalogPage catalogPage = jsonMapper.readValue(get(path, JSON, false), CatalogPage.class);
+            if (catalogPage.games().isEmpty()) {
+                break;
+            }
+            catalogPaths.add(path);
+            gamePaths.add("/api/games?ids=" + catalogPage.games().stream()
+                .map(game -> String.valueOf(game.gameId()))
+                .collect(Collectors.joining(",")));
+        }
+        if (catalogPaths.isEmpty()) {
+            throw new IllegalStateException("No games found at " + api + "; load InsertIntoGame.sql first");
+        }
+        List<Result> results = new ArrayList<>();
+        for (String format : List.of(JSON, SMILE)) {
+            results.add(measure(label, "catalog-page", catalogPaths, format, CatalogPage.class, iterations));
+            results.add(measure(label, "games-with-descriptions", gamePaths, format, GameRow[].class, iterations));
+        }
+        return results;
+    }
+
+    private Result measure(String label, String payload, List<String> paths, String format,
+                           Class<?> type, int iterations) throws Exception {
+        ObjectMapper mapper = format.equals(SMILE) ? smileMapper : jsonMapper;
+        List<byte[]> plain = new ArrayList<>();
+        List<byte[]> gzipped = new ArrayList<>();
+        for (String path : paths) {
+            plain.add(get(path, format, false));
+            gzipped.add(get(path, format, true));
+        }
+        List<Object> decoded = new ArrayList<>();
+        for (byte[] body : plain) {
+            decoded.add(mapper.readValue(body, type));
+        }
+        // Warm up with as many rounds as are measured
+        cpuNanosPerOp(iterations, plain, body -> mapper.readValue(body, type));
+        double decode = cpuNanosPerOp(iterations, plain, body -> mapper.readValue(body, type));
+        double encode = cpuNanosPerOp(iterations, decoded, mapper::writeValueAsBytes);
+        cpuNanosPerOp(iterations, gzipped, WireFormatBenchmark::gunzip);
+        double gunzip = cpuNanosPerOp(iterations, gzipped, WireFormatBenchmark::gunzip);
+        return new Result(label, payload, format.equals(SMILE) ? "smile" : "json", paths.size(),
+            average(plain), average(gzipped), decode / 1000, encode / 1000, gunzip / 1000);
+    }
+
+    private byte[] get(String path, String format, boolean gzip) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(api + path))
+            .timeout(Duration.ofSeconds(10))
+            .header("Accept", format);
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        if (!contentType.startsWith(format)) {
+            throw new IllegalStateException("GET " + path + " asked for " + format + " but got " + contentType);
+        }
+        // HttpClient does not decompress, so this is the body as sent on the wire
+        return response.body();
+    }
+
+    private static <T> double cpuNanosPerOp(int iterations, List<T> inputs, Operation<T> operation) throws Exception {
+        long start = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            for (T input : inputs) {
+                operation.apply(input);
+            }
+        }
+        return (double) (THREADS.getCurrentThreadCpuTime() - start) / ((long) iterations * inputs.size());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static double average(List<byte[]> bodies) {
+        return bodies.stream().mapToInt(body -> body.length).average().orElse(0);
+    }
+
+    @FunctionalInterface
+    private interface Operation<T> {
+        Object apply(T input) throws Exception;
+    }
+
+    record GameRow(int gameId, String title, String genre, String developer, String releaseDate,
+                   double price, double leasePrice, String description) {
+    }
+
+    record CatalogPage(List<GameRow> games, int page, int size, long totalGames, int totalPages) {
+    }
+
+    record Result(String label, String payload, String format, int pages, double bytes, double gzipBytes,
+                  double decodeMicros, double encodeMicros, double gunzipMicros) {
+        String toJson() {
+            return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"payload\":\"%s\",\"format\":\"%s\",\"pages\":%d,\"bytes\":%.0f,"
+                    + "\"gzipBytes\":%.0f,\"decodeMicros\":%.1f,\"encodeMicros\":%.1f,\"gunzipMicros\":%.1f}",
+                label, payload, format, pages, bytes, gzipBytes, decodeMicros, encodeMicros, gunzipMicros);
+        }
+    }
+}
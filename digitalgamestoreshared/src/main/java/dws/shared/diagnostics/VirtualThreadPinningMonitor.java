@@ -0,0 +1,124 @@
+package dws.shared.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects virtual threads pinned to their carrier thread, using an in-process JFR stream.
+ * Each jdk.VirtualThreadPinned event is attributed to the innermost stack frame in the
+ * application's own code, so the report points at the synchronized block or native call it owns
+ * rather than at library internals. The report is available at /actuator/pinning.
+ * Each application registers one as a bean when diagnostics.pinning.enabled=true; only meaningful
+ * with virtual threads on.
+ */
+@Endpoint(id = "pinning")
+public class VirtualThreadPinningMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final ConcurrentMap<String, PinningSite> sites = new ConcurrentHashMap<>();
+    private final Duration threshold;
+    private final String ownPackage;
+    private final Counter pinnedEvents;
+    private RecordingStream stream;
+
+    /**
+     * @param meterRegistry Registry of the dws.vthread.pinned counter
+     * @param threshold Shortest pinning reported
+     * @param ownPackage Package prefix of the application's code, e.g. "dws."
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold, String ownPackage) {
+        this.threshold = threshold;
+        this.ownPackage = ownPackage;
+        this.pinnedEvents = Counter.builder("dws.vthread.pinned")
+            .description("Virtual thread pinning events longer than the configured threshold")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Pinning sites ordered by total pinned time, longest first.
+     *
+     * @return One entry per site in application code that pinned a carrier thread
+     */
+    @ReadOperation
+    public List<PinningReport> report() {
+        return sites.entrySet().stream()
+            .map(entry -> new PinningReport(entry.getKey(), entry.getValue().count.sum(),
+                Duration.ofNanos(entry.getValue().totalNanos.sum()).toMillis(), entry.getValue().stackTrace))
+            .sorted(Comparator.comparingLong(PinningReport::totalMillis).reversed())
+            .toList();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = frames.stream()
+            .filter(frame -> frame.getMethod().getType().getName().startsWith(ownPackage))
+            .findFirst()
+            .map(VirtualThreadPinningMonitor::describe)
+            .orElse("<outside application code>");
+        PinningSite stats = sites.computeIfAbsent(site, key -> new PinningSite(frames.stream()
+            .limit(20)
+            .map(VirtualThreadPinningMonitor::describe)
+            .toList()));
+        stats.count.increment();
+        stats.totalNanos.add(event.getDuration().toNanos());
+        if (stats.count.sum() == 1) {
+            logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static final class PinningSite {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final List<String> stackTrace;
+
+        private PinningSite(List<String> stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+    }
+
+    /**
+     * @param site Innermost application frame involved in the pinning
+     * @param count Number of pinning events at this site
+     * @param totalMillis Total time carrier threads were pinned at this site
+     * @param stackTrace Stack trace of the first event seen at this site
+     */
+    public record PinningReport(String site, long count, long totalMillis, List<String> stackTrace) {
+    }
+}
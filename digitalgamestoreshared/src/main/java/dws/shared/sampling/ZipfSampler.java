@@ -0,0 +1,39 @@
+package dws.shared.sampling;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks 0..n-1 with Zipfian probabilities: rank k is chosen with weight 1/(k+1)^exponent.
+ * An exponent of 0 is uniform; around 1 a small head of ranks takes most of the draws,
+ * as with game sales and user activity. The cumulative distribution is precomputed,
+ * so a draw is one binary search. Used by the data generator and the journey load test.
+ */
+public class ZipfSampler {
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    /**
+     * @param random Source of randomness
+     * @return A rank between 0 (the most likely) and n-1
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,159 @@
+package dws.shared.tracing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Response that runs a callback once, just before the first byte of the body is written
+ * (or the response is otherwise committed), so a header computed at that moment still goes out with it.
+ * Jackson buffers its output and writes it in one go for bodies up to about 8 KB, so for those
+ * the callback runs once the body has been fully serialized. Thymeleaf writes a page as it renders it,
+ * so for pages the callback runs early in rendering; for redirects it runs when the redirect is sent.
+ */
+public class ServerTimingResponse extends HttpServletResponseWrapper {
+    private final Runnable beforeCommit;
+    private boolean done;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public ServerTimingResponse(HttpServletResponse response, Runnable beforeCommit) {
+        super(response);
+        this.beforeCommit = beforeCommit;
+    }
+
+    /**
+     * Runs the callback unless it already ran or the response is committed.
+     */
+    public void beforeCommit() {
+        if (!done) {
+            done = true;
+            if (!isCommitted()) {
+                beforeCommit.run();
+            }
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CommitAwareOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new CommitAwareWriter(super.getWriter()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        beforeCommit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        beforeCommit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        beforeCommit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+
+    private class CommitAwareOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        CommitAwareOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            beforeCommit();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            beforeCommit();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            beforeCommit();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            beforeCommit();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private class CommitAwareWriter extends FilterWriter {
+        CommitAwareWriter(PrintWriter delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            beforeCommit();
+            super.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            beforeCommit();
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            beforeCommit();
+            super.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            beforeCommit();
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            beforeCommit();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dws.shared.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Timeline of one request: the spans recorded while it was handled, timed relative to its start.
+ * The request itself runs through phases, named by the application (the API's filters, controller and ser;
+ * the web client's handler and render); what it waits on within them, such as repository calls, JDBC
+ * statements or API calls, is recorded as spans. Spans may be recorded from any thread.
+ */
+public class Trace {
+    private final String id;
+    private final String name;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+    private String phase;
+    private long phaseStartNanos;
+    private int status;
+    private long durationNanos = -1;
+
+    /**
+     * @param id Request ID (X-Request-Id), on the log lines of the request and passed on with the calls it makes
+     * @param name Method and URI of the request
+     * @param phase Phase the request starts in
+     */
+    public Trace(String id, String name, String phase) {
+        this.id = id;
+        this.name = name;
+        this.phase = phase;
+        this.phaseStartNanos = startNanos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Time from start to finish, or -1 while the request is still being handled
+     */
+    public synchronized long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Records a span that ends now.
+     *
+     * @param name Server-Timing metric the span adds to, e.g. db or api
+     * @param startNanos System.nanoTime() when the span started
+     * @param detail What the span was spent on, or null
+     */
+    public void span(String name, long startNanos, String detail) {
+        span(name, startNanos, System.nanoTime() - startNanos, detail);
+    }
+
+    /**
+     * Records a span of known duration, such as one a called service reported in its Server-Timing header.
+     */
+    public synchronized void span(String name, long startNanos, long durationNanos, String detail) {
+        if (this.durationNanos < 0) {
+            spans.add(new Span(name, startNanos - this.startNanos, durationNanos, detail));
+        }
+    }
+
+    /**
+     * Ends the current phase, recording it as a span, and starts the next one; does nothing if already in it.
+     */
+    public synchronized void enterPhase(String phase) {
+        if (durationNanos < 0 && !phase.equals(this.phase)) {
+            long now = System.nanoTime();
+            spans.add(new Span(this.phase, phaseStartNanos - startNanos, now - phaseStartNanos, null));
+            this.phase = phase;
+            this.phaseStartNanos = now;
+        }
+    }
+
+    /**
+     * Ends the last phase and the trace; later spans are ignored.
+     */
+    public synchronized void finish(int status) {
+        if (durationNanos < 0) {
+            long now = System.nanoTime();
+            spans.add(new Span(phase, phaseStartNanos - startNanos, now - phaseStartNanos, null));
+            this.status = status;
+            this.durationNanos = now - startNanos;
+        }
+    }
+
+    /**
+     * @return Copy of the spans recorded so far, in the order they ended
+     */
+    public synchronized List<Span> getSpans() {
+        return List.copyOf(spans);
+    }
+
+    /**
+     * Server-Timing header value for the request so far: one metric per span name with the summed
+     * duration (and the span count when there are several), the current phase up to now, and total.
+     * For example: repo;dur=3.1;desc="2 calls", db;dur=1.8;desc="2 calls", controller;dur=4.0, total;dur=4.2
+     */
+    public synchronized String serverTiming() {
+        long now = System.nanoTime();
+        Map<String, long[]> metrics = new LinkedHashMap<>();
+        for (Span span : spans) {
+            long[] metric = metrics.computeIfAbsent(span.name(), ignored -> new long[2]);
+            metric[0] += span.durationNanos();
+            metric[1]++;
+        }
+        if (durationNanos < 0) {
+            long[] metric = metrics.computeIfAbsent(phase, ignored -> new long[2]);
+            metric[0] += now - phaseStartNanos;
+            metric[1]++;
+        }
+        StringBuilder header = new StringBuilder();
+        metrics.forEach((metric, sum) -> {
+            header.append(metric).append(";dur=").append(millis(sum[0]));
+            if (sum[1] > 1) {
+                header.append(";desc=\"").append(sum[1]).append(" calls\"");
+            }
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(millis(durationNanos < 0 ? now - startNanos : durationNanos))
+            .toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    /**
+     * @param startOffsetNanos Start of the span relative to the start of the trace
+     */
+    public record Span(String name, long startOffsetNanos, long durationNanos, String detail) {
+    }
+}
@@ -0,0 +1,93 @@
+package dws.shared.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last completed request traces, newest first, at /actuator/traces.
+ * /actuator/traces?minDurationMs=500&name=purchase narrows them down to slow requests by method and URI,
+ * /actuator/traces/{id} shows the request with that X-Request-Id. The web client sends its ID with the
+ * API calls it makes, so the API's traces of those calls are at the API's /actuator/traces/{id}.
+ * Adding a trace overwrites the oldest one and never blocks.
+ * Each application registers one as a bean, sized by tracing.buffer-size.
+ */
+@Endpoint(id = "traces")
+public class TraceStore {
+    private final AtomicReferenceArray<Trace> buffer;
+    private final AtomicLong added = new AtomicLong();
+
+    /**
+     * @param bufferSize Number of traces kept
+     */
+    public TraceStore(int bufferSize) {
+        this.buffer = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    /**
+     * Keeps a completed trace, in place of the oldest one once the buffer is full.
+     */
+    public void add(Trace trace) {
+        buffer.set((int) (added.getAndIncrement() % buffer.length()), trace);
+    }
+
+    @ReadOperation
+    public List<TraceReport> traces(@Nullable Long minDurationMs, @Nullable String name) {
+        List<TraceReport> traces = new ArrayList<>();
+        for (Trace trace : newestFirst()) {
+            if ((minDurationMs == null || trace.getDurationNanos() >= minDurationMs * 1_000_000)
+                    && (name == null || trace.getName().contains(name))) {
+                traces.add(TraceReport.of(trace));
+            }
+        }
+        return traces;
+    }
+
+    @ReadOperation
+    public TraceReport trace(@Selector String id) {
+        for (Trace trace : newestFirst()) {
+            if (trace.getId().equals(id)) {
+                return TraceReport.of(trace);
+            }
+        }
+        return null;
+    }
+
+    private List<Trace> newestFirst() {
+        long last = added.get();
+        List<Trace> traces = new ArrayList<>(buffer.length());
+        for (long i = last - 1; i >= 0 && i >= last - buffer.length(); i--) {
+            Trace trace = buffer.get((int) (i % buffer.length()));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public record TraceReport(String id, String name, int status, Instant startedAt, double durationMs,
+                              List<SpanReport> spans) {
+        static TraceReport of(Trace trace) {
+            return new TraceReport(trace.getId(), trace.getName(), trace.getStatus(), trace.getStartedAt(),
+                trace.getDurationNanos() / 1e6,
+                trace.getSpans().stream().map(SpanReport::of).toList());
+        }
+    }
+
+    /**
+     * @param startMs Start of the span relative to the start of the request
+     */
+    public record SpanReport(String name, double startMs, double durationMs, String detail) {
+        static SpanReport of(Trace.Span span) {
+            return new SpanReport(span.name(), span.startOffsetNanos() / 1e6, span.durationNanos() / 1e6,
+                span.detail());
+        }
+    }
+}